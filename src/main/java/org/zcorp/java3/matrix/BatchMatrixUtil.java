@@ -0,0 +1,147 @@
+package org.zcorp.java3.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Multiplication of many small matrices. Submitting every small product to {@link MatrixUtil#concurrentMultiply3}
+ * costs more than the product itself, so the batch is split into a few coarse chunks
+ * (about {@value #CHUNKS_PER_THREAD} per thread of the executor, each of at least {@value #MIN_TASK_WORK} multiply-adds),
+ * one task per chunk, and every pair of a chunk is multiplied single threaded
+ */
+public class BatchMatrixUtil {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_TASK_WORK = 1 << 18;
+
+    /**
+     * Multithreading multiplication of pairs {@code matricesA[i] * matricesB[i]}
+     * Assumption:
+     * number of columns of {@code matricesA[i]} is equal to number of rows of {@code matricesB[i]}
+     *
+     * @param matricesA is first matrices
+     * @param matricesB is second matrices, as many as first ones
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @return {@code matricesC}, {@code matricesC[i]} is a multiplication {@code matricesA[i]} and {@code matricesB[i]}
+     */
+    public static int[][][] concurrentMultiply(int[][][] matricesA, int[][][] matricesB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        if (matricesA.length != matricesB.length) {
+            throw new IllegalArgumentException("Batches of different sizes: " + matricesA.length + " and " + matricesB.length);
+        }
+        final int count = matricesA.length;
+        final int[][][] matricesC = new int[count][][];
+        long totalWork = 0;
+        final long[] work = new long[count];
+        for (int i = 0; i < count; i++) {
+            final int inner = matricesB[i].length;
+            work[i] = (long) matricesA[i].length * inner * (inner == 0 ? 0 : matricesB[i][0].length) + 1;
+            totalWork += work[i];
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        final long chunkWork = chunkWork(totalWork, executor);
+        for (int first = 0, last; first < count; first = last) {
+            long chunk = 0;
+            for (last = first; last < count && chunk < chunkWork; last++) {
+                chunk += work[last];
+            }
+            final int firstPair = first;
+            final int lastPair = last;
+            tasks.add(() -> {
+                for (int i = firstPair; i < lastPair; i++) {
+                    matricesC[i] = MatrixUtil.singleThreadMultiply2(matricesA[i], matricesB[i]);
+                }
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matricesC;
+    }
+
+    /**
+     * Multithreading multiplication of strided batches {@code matricesA.get(i) * matricesB.get(i)}.
+     * A batch {@code matricesB} of one matrix is multiplied by every matrix of {@code matricesA}
+     * Assumption:
+     * number of columns of {@code matricesA} is equal to number of rows of {@code matricesB}
+     *
+     * @param matricesA is first batch
+     * @param matricesB is second batch of the same count or of one matrix
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @return {@code matricesC} is a batch of multiplications
+     */
+    public static IntMatrixBatch concurrentMultiply(IntMatrixBatch matricesA, IntMatrixBatch matricesB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        return concurrentMultiply(matricesA, matricesB,
+                new IntMatrixBatch(matricesA.getCount(), matricesA.getRows(), matricesB.getColumns()), executor);
+    }
+
+    /**
+     * Multithreading multiplication of strided batches into {@code matricesC} without allocation of the result
+     * Assumption:
+     * number of columns of {@code matricesA} is equal to number of rows of {@code matricesB}
+     *
+     * @param matricesA is first batch
+     * @param matricesB is second batch of the same count or of one matrix
+     * @param matricesC is destination batch sharing no data with the operands, its values are overwritten
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @return {@code matricesC} is a batch of multiplications
+     */
+    public static IntMatrixBatch concurrentMultiply(IntMatrixBatch matricesA, IntMatrixBatch matricesB, IntMatrixBatch matricesC,
+                                                    ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int count = matricesA.getCount();
+        if (matricesA.getColumns() != matricesB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matricesA + " and " + matricesB);
+        }
+        if (matricesB.getCount() != count && matricesB.getCount() != 1) {
+            throw new IllegalArgumentException("Batches of different sizes: " + matricesA + " and " + matricesB);
+        }
+        if (matricesC.getCount() != count || matricesC.getRows() != matricesA.getRows() || matricesC.getColumns() != matricesB.getColumns()) {
+            throw new IllegalArgumentException("Destination batch must be " + count + " x "
+                    + matricesA.getRows() + 'x' + matricesB.getColumns() + ": " + matricesC);
+        }
+        // a matrix of matricesC is cleared before the operands are read
+        if (matricesC.overlaps(matricesA) || matricesC.overlaps(matricesB)) {
+            throw new IllegalArgumentException("Destination batch must not share data with an operand: " + matricesC);
+        }
+        final long work = (long) matricesA.getRows() * matricesA.getColumns() * matricesB.getColumns() + 1;
+        final int pairsPerTask = (int) Math.max(1, Math.min(count, chunkWork(work * count, executor) / work));
+        final int blockSize = MatrixUtil.getBlockSize();
+
+        List<Callable<Void>> tasks = new ArrayList<>(count / pairsPerTask + 1);
+        for (int first = 0; first < count; first += pairsPerTask) {
+            final int firstPair = first;
+            final int lastPair = Math.min(first + pairsPerTask, count);
+            tasks.add(() -> {
+                for (int i = firstPair; i < lastPair; i++) {
+                    final IntMatrix matrixC = matricesC.get(i);
+                    matrixC.clear();
+                    MatrixUtil.multiplyAdd(matricesA.get(i), matricesB.get(matricesB.getCount() == 1 ? 0 : i), matrixC, blockSize);
+                }
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matricesC;
+    }
+
+    /**
+     * @return work of one chunk: the batch split into {@value #CHUNKS_PER_THREAD} chunks per thread of {@code executor},
+     * but not less than {@value #MIN_TASK_WORK}
+     */
+    private static long chunkWork(long totalWork, ExecutorService executor) {
+        final long chunks = (long) MatrixUtil.parallelism(executor) * CHUNKS_PER_THREAD;
+        return Math.max(MIN_TASK_WORK, (totalWork + chunks - 1) / chunks);
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+}
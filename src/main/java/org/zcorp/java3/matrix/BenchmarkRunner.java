@@ -0,0 +1,262 @@
+package org.zcorp.java3.matrix;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Lightweight benchmark of multiplication kernels for environments without JMH.
+ * <ul>
+ * <li>time is measured by {@link System#nanoTime()}; a sample repeats the kernel until it takes at least
+ * {@code minSampleNanos}, so small matrices are measured well above the timer resolution</li>
+ * <li>every kernel is warmed up explicitly before measurement and its result is checked against the first kernel</li>
+ * <li>a round takes one sample of every kernel in random order, so drift of the machine (frequency, other load)
+ * is spread over all kernels instead of penalizing the ones measured last</li>
+ * <li>report contains mean with 95% confidence interval, standard deviation and percentiles of time per operation</li>
+ * </ul>
+ * It is not a replacement of the JMH suite: no forks, no blackhole, no control of JIT between kernels
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Multiplication kernel under measurement
+     */
+    @FunctionalInterface
+    public interface Kernel {
+        int[][] multiply(int[][] matrixA, int[][] matrixB) throws Exception;
+    }
+
+    // two-sided 97.5% quantiles of Student's t distribution for 1..30 degrees of freedom
+    private static final double[] T_QUANTILES = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_QUANTILE = 1.960;
+    private static final String PLANNED_KERNEL = "multiply";
+
+    private final int warmupRounds;
+    private final int measurementRounds;
+    private final long minSampleNanos;
+    private final Random random;
+    private final Map<String, Kernel> kernels = new LinkedHashMap<>();
+
+    /**
+     * @param warmupRounds      is number of unmeasured rounds of every kernel
+     * @param measurementRounds is number of samples of every kernel
+     * @param minSampleNanos    is minimal duration of a sample, a kernel is repeated within a sample to reach it
+     * @param seed              is seed of the random order of kernels in rounds
+     */
+    public BenchmarkRunner(int warmupRounds, int measurementRounds, long minSampleNanos, long seed) {
+        if (warmupRounds < 0 || measurementRounds < 2 || minSampleNanos < 0) {
+            throw new IllegalArgumentException("Invalid benchmark settings: warmup " + warmupRounds
+                    + ", measurement " + measurementRounds + ", sample " + minSampleNanos + " ns");
+        }
+        this.warmupRounds = warmupRounds;
+        this.measurementRounds = measurementRounds;
+        this.minSampleNanos = minSampleNanos;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param name   is unique name of the kernel in the report
+     * @param kernel is the kernel
+     * @return this runner
+     */
+    public BenchmarkRunner register(String name, Kernel kernel) {
+        if (kernels.putIfAbsent(name, kernel) != null) {
+            throw new IllegalArgumentException("Kernel " + name + " is already registered");
+        }
+        return this;
+    }
+
+    /**
+     * Registering every public static method of {@code type} which name contains "ultiply" (e.g.
+     * {@code concurrentMultiply3}) and which takes two {@code int[][]}, optionally followed by
+     * an {@code ExecutorService} or a {@code ForkJoinPool}. If a method has several such overloads, the one taking
+     * an executor is used. New variants are picked up without changes of the caller.
+     * {@value #PLANNED_KERNEL} is not registered: it runs another kernel chosen by {@link MatrixPlanner},
+     * calibrating and saving a plan on first use
+     *
+     * @param type     is class with kernels, e.g. {@code MatrixUtil.class}
+     * @param executor is {@code ExecutorService} passed to kernels taking it, it is not shut down
+     * @param pool     is {@code ForkJoinPool} passed to kernels taking it, it is not shut down
+     * @return this runner
+     */
+    public BenchmarkRunner registerAll(Class<?> type, ExecutorService executor, ForkJoinPool pool) {
+        final Map<String, Method> methods = new LinkedHashMap<>();
+        final Method[] declared = type.getMethods();
+        Arrays.sort(declared, Comparator.comparing(Method::getName).thenComparing(Method::getParameterCount));
+        for (Method method : declared) {
+            if (isKernel(method)) {
+                methods.merge(method.getName(), method, (first, second) -> second);
+            }
+        }
+        for (Method method : methods.values()) {
+            final Class<?>[] parameters = method.getParameterTypes();
+            final Object resource = parameters.length == 2 ? null
+                    : parameters[2] == ForkJoinPool.class ? pool : executor;
+            register(method.getName(), (matrixA, matrixB) -> {
+                try {
+                    return (int[][]) (resource == null
+                            ? method.invoke(null, matrixA, matrixB)
+                            : method.invoke(null, matrixA, matrixB, resource));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            });
+        }
+        return this;
+    }
+
+    private static boolean isKernel(Method method) {
+        final Class<?>[] parameters = method.getParameterTypes();
+        return Modifier.isStatic(method.getModifiers())
+                && method.getName().contains("ultiply")
+                && !method.getName().equals(PLANNED_KERNEL)
+                && method.getReturnType() == int[][].class
+                && (parameters.length == 2 || parameters.length == 3
+                && (parameters[2] == ExecutorService.class || parameters[2] == ForkJoinPool.class))
+                && parameters[0] == int[][].class && parameters[1] == int[][].class;
+    }
+
+    /**
+     * Running all registered kernels on the same matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code results} in order of registration
+     * @throws IllegalStateException if a kernel returns a result different from the one of the first kernel
+     */
+    public List<Result> run(int[][] matrixA, int[][] matrixB) throws Exception {
+        if (kernels.isEmpty()) {
+            throw new IllegalStateException("No kernels registered");
+        }
+        final List<String> names = new ArrayList<>(kernels.keySet());
+        final Map<String, Integer> operationsPerSample = new LinkedHashMap<>();
+        final Map<String, double[]> samples = new LinkedHashMap<>();
+
+        int[][] expected = null;
+        for (String name : names) {
+            final int[][] matrixC = kernels.get(name).multiply(matrixA, matrixB);
+            if (expected == null) {
+                expected = matrixC;
+            } else if (!MatrixUtil.compare(expected, matrixC)) {
+                throw new IllegalStateException("Kernel " + name + " differs from " + names.get(0));
+            }
+            samples.put(name, new double[measurementRounds]);
+        }
+
+        for (int round = 0; round < warmupRounds; round++) {
+            Collections.shuffle(names, random);
+            for (String name : names) {
+                final long start = System.nanoTime();
+                kernels.get(name).multiply(matrixA, matrixB);
+                final long duration = Math.max(1L, System.nanoTime() - start);
+                operationsPerSample.put(name, (int) Math.max(1L, Math.min(Integer.MAX_VALUE, minSampleNanos / duration)));
+            }
+        }
+
+        for (int round = 0; round < measurementRounds; round++) {
+            Collections.shuffle(names, random);
+            for (String name : names) {
+                final Kernel kernel = kernels.get(name);
+                final int operations = operationsPerSample.getOrDefault(name, 1);
+                final long start = System.nanoTime();
+                for (int operation = 0; operation < operations; operation++) {
+                    kernel.multiply(matrixA, matrixB);
+                }
+                samples.get(name)[round] = (double) (System.nanoTime() - start) / operations;
+            }
+        }
+
+        final List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : samples.entrySet()) {
+            results.add(new Result(entry.getKey(), entry.getValue()));
+        }
+        return results;
+    }
+
+    /**
+     * Statistics of time per operation of one kernel, in nanoseconds
+     */
+    public static class Result {
+        private final String name;
+        private final double[] samples;
+        private final double mean;
+        private final double standardDeviation;
+
+        Result(String name, double[] samples) {
+            this.name = name;
+            this.samples = samples.clone();
+            Arrays.sort(this.samples);
+            double sum = 0;
+            for (double sample : samples) {
+                sum += sample;
+            }
+            mean = sum / samples.length;
+            double squares = 0;
+            for (double sample : samples) {
+                squares += (sample - mean) * (sample - mean);
+            }
+            standardDeviation = Math.sqrt(squares / (samples.length - 1));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStandardDeviation() {
+            return standardDeviation;
+        }
+
+        /**
+         * @return half-width of the 95% confidence interval of the mean
+         */
+        public double getConfidenceInterval() {
+            final int degrees = samples.length - 1;
+            final double quantile = degrees <= T_QUANTILES.length ? T_QUANTILES[degrees - 1] : Z_QUANTILE;
+            return quantile * standardDeviation / Math.sqrt(samples.length);
+        }
+
+        /**
+         * @param percentile is percentile from 0 to 100
+         * @return sample at {@code percentile} by the nearest-rank method
+         */
+        public double getPercentile(double percentile) {
+            final int rank = (int) Math.ceil(percentile / 100 * samples.length);
+            return samples[Math.min(samples.length - 1, Math.max(0, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %12.3f +- %9.3f %10.3f %12.3f %12.3f %12.3f %12.3f",
+                    name, mean / 1e6, getConfidenceInterval() / 1e6, standardDeviation / 1e6,
+                    getPercentile(0) / 1e6, getPercentile(50) / 1e6, getPercentile(90) / 1e6, getPercentile(100) / 1e6);
+        }
+
+        /**
+         * @return header of the table printed by {@link #toString()}
+         */
+        public static String header() {
+            return String.format("%-28s %12s    %9s %10s %12s %12s %12s %12s",
+                    "Kernel, ms/op", "mean", "95% CI", "stddev", "min", "p50", "p90", "max");
+        }
+    }
+}
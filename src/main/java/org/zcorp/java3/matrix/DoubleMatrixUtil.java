@@ -0,0 +1,355 @@
+package org.zcorp.java3.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/**
+ * {@code double} versions of the fastest {@link MatrixUtil} kernels.
+ * Inner loops don't allocate and are plain counted loops over arrays,
+ * the row-broadcast and blocked ones are auto-vectorized by C2
+ */
+public class DoubleMatrixUtil {
+    private static final int MIN_TASK_WORK = 1 << 18;
+
+    /**
+     * Multithreading multiplication (variant 3) of two matrices: one task per stripe of rows, transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] concurrentMultiply3(double[][] matrixA, double[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+        final double[][] matrixBT = transpose(matrixB);
+
+        final int rowsPerTask = (int) Math.max(1L, MIN_TASK_WORK / Math.max(1L, (long) matrixB.length * columns));
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+            tasks.add(() -> {
+                multiplyRowsTransposed(matrixA, matrixBT, matrixC, firstRow, lastRow);
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of two matrices: rows split evenly between processors, transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] concurrentMultiply4(double[][] matrixA, double[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+        final double[][] matrixBT = transpose(matrixB);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        int processorsCount = Math.max(1, Math.min(MatrixUtil.parallelism(executor), rows));
+        int rowsCountPerProcessor = rows / processorsCount;
+
+        for (int processor = 1; processor <= processorsCount; processor++) {
+            int firstRowNumber = rowsCountPerProcessor * (processor - 1);
+            int lastRowNumber = processor == processorsCount ? rows : rowsCountPerProcessor * processor;
+            tasks.add(() -> {
+                multiplyRowsTransposed(matrixA, matrixBT, matrixC, firstRowNumber, lastRowNumber);
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 7) of two matrices: parallel stream over rows, row-broadcast kernel
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run the stream, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] concurrentMultiply7(double[][] matrixA, double[][] matrixB, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+
+        pool.submit(
+                () -> IntStream.range(0, rows)
+                        .parallel()
+                        .forEach(row -> multiplyRow(matrixA[row], matrixB, matrixC[row])))
+                .get();
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication (variant 2) of two matrices: row-broadcast kernel
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] singleThreadMultiply2(double[][] matrixA, double[][] matrixB) {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+
+        for (int row = 0; row < rows; row++) {
+            multiplyRow(matrixA[row], matrixB, matrixC[row]);
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded blocked (tiled) multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param blockSize is size of square tile, see {@link MatrixUtil#getBlockSize()}
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] singleThreadBlockedMultiply(double[][] matrixA, double[][] matrixB, int blockSize) {
+        checkBlockSize(blockSize);
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+
+        multiplyBlocks(matrixA, matrixB, matrixC, 0, rows, 0, columns, blockSize);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading blocked (tiled) multiplication of two matrices.
+     * Every task owns a {@code blockSize} x {@code blockSize} tile of {@code matrixC}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param blockSize is size of square tile, see {@link MatrixUtil#getBlockSize()}
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static double[][] concurrentBlockedMultiply(double[][] matrixA, double[][] matrixB, ExecutorService executor, int blockSize) throws InterruptedException, ExecutionException {
+        checkBlockSize(blockSize);
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final double[][] matrixC = new double[rows][columns];
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int rowBlock = 0; rowBlock < rows; rowBlock += blockSize) {
+            for (int columnBlock = 0; columnBlock < columns; columnBlock += blockSize) {
+                final int firstRow = rowBlock;
+                final int lastRow = Math.min(rowBlock + blockSize, rows);
+                final int firstColumn = columnBlock;
+                final int lastColumn = Math.min(columnBlock + blockSize, columns);
+                tasks.add(() -> {
+                    multiplyBlocks(matrixA, matrixB, matrixC, firstRow, lastRow, firstColumn, lastColumn, blockSize);
+                    return null;
+                });
+            }
+        }
+
+        invokeAll(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Transposing a matrix
+     *
+     * @param matrix is matrix to transpose
+     * @return {@code matrixT} is a transposed {@code matrix}
+     */
+    public static double[][] transpose(double[][] matrix) {
+        final int rows = matrix.length;
+        final int columns = rows == 0 ? 0 : matrix[0].length;
+        final double[][] matrixT = new double[columns][rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrixT[column][row] = matrix[row][column];
+            }
+        }
+        return matrixT;
+    }
+
+    /**
+     * Creating a matrix of random values in [0, 1)
+     *
+     * @param rows    is number of rows of new matrix
+     * @param columns is number of columns of new matrix
+     * @return {@code matrix} is a new matrix
+     */
+    public static double[][] create(int rows, int columns) {
+        double[][] matrix = new double[rows][columns];
+        Random rn = new Random();
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = rn.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Comparing matrices with tolerance: values are equal if
+     * {@code |a - b| <= tolerance * max(1, |a|, |b|)}
+     *
+     * @param tolerance is allowed relative (absolute for values less than 1) difference
+     * @param matrices  is array of matrices
+     * @return {@code true} if sizes are equal and all values are equal within {@code tolerance}
+     */
+    public static boolean compare(double tolerance, double[][]... matrices) {
+        final int size = matrices.length;
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (!compare(tolerance, matrices[i], matrices[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean compare(double tolerance, double[][] matrixA, double[][] matrixB) {
+        final int rows = matrixA.length;
+        if (matrixB.length != rows) {
+            return false;
+        }
+        for (int row = 0; row < rows; row++) {
+            final int columns = matrixA[row].length;
+            if (matrixB[row].length != columns) {
+                return false;
+            }
+            for (int column = 0; column < columns; column++) {
+                double a = matrixA[row][column];
+                double b = matrixB[row][column];
+                if (!(Math.abs(a - b) <= tolerance * Math.max(1, Math.max(Math.abs(a), Math.abs(b))))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code rowC = rowA * matrixB}, the inner loop is a vectorizable axpy
+     */
+    private static void multiplyRow(double[] rowA, double[][] matrixB, double[] rowC) {
+        final int columns = rowC.length;
+        for (int i = 0; i < rowA.length; i++) {
+            double elementA = rowA[i];
+            double rowB[] = matrixB[i];
+            for (int column = 0; column < columns; column++) {
+                rowC[column] += elementA * rowB[column];
+            }
+        }
+    }
+
+    /**
+     * Dot products of rows of {@code matrixA} and rows of {@code matrixBT}.
+     * Four independent partial sums break the dependency chain of floating point additions
+     */
+    private static void multiplyRowsTransposed(double[][] matrixA, double[][] matrixBT, double[][] matrixC, int firstRow, int lastRow) {
+        for (int row = firstRow; row < lastRow; row++) {
+            double rowA[] = matrixA[row];
+            double rowC[] = matrixC[row];
+            final int inner = rowA.length;
+            final int unrolled = inner & ~3;
+            for (int column = 0; column < rowC.length; column++) {
+                double columnB[] = matrixBT[column];
+                double sum0 = 0;
+                double sum1 = 0;
+                double sum2 = 0;
+                double sum3 = 0;
+                int k = 0;
+                for (; k < unrolled; k += 4) {
+                    sum0 += rowA[k] * columnB[k];
+                    sum1 += rowA[k + 1] * columnB[k + 1];
+                    sum2 += rowA[k + 2] * columnB[k + 2];
+                    sum3 += rowA[k + 3] * columnB[k + 3];
+                }
+                for (; k < inner; k++) {
+                    sum0 += rowA[k] * columnB[k];
+                }
+                rowC[column] = (sum0 + sum1) + (sum2 + sum3);
+            }
+        }
+    }
+
+    private static void multiplyBlocks(double[][] matrixA, double[][] matrixB, double[][] matrixC,
+                                       int firstRow, int lastRow, int firstColumn, int lastColumn, int blockSize) {
+        final int inner = matrixB.length;
+        for (int rowBlock = firstRow; rowBlock < lastRow; rowBlock += blockSize) {
+            final int rowEnd = Math.min(rowBlock + blockSize, lastRow);
+            for (int kBlock = 0; kBlock < inner; kBlock += blockSize) {
+                final int kEnd = Math.min(kBlock + blockSize, inner);
+                for (int columnBlock = firstColumn; columnBlock < lastColumn; columnBlock += blockSize) {
+                    final int columnEnd = Math.min(columnBlock + blockSize, lastColumn);
+                    for (int row = rowBlock; row < rowEnd; row++) {
+                        double rowA[] = matrixA[row];
+                        double rowC[] = matrixC[row];
+                        for (int k = kBlock; k < kEnd; k++) {
+                            double elementA = rowA[k];
+                            double rowB[] = matrixB[k];
+                            for (int column = columnBlock; column < columnEnd; column++) {
+                                rowC[column] += elementA * rowB[column];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private static int checkShapes(double[][] matrixA, double[][] matrixB) {
+        final int inner = matrixB.length;
+        if (matrixA.length > 0 && matrixA[0].length != inner) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + matrixA[0].length + " and " + inner + "xN");
+        }
+        return inner == 0 ? 0 : matrixB[0].length;
+    }
+
+    private static void checkBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.zcorp.java3.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Dense int matrix stored in one contiguous row-major array.
+ * Element ({@code row}, {@code column}) is located at {@code data[offset + row * stride + column]},
+ * so sub-matrix views share the array of their parent and cost nothing to create
+ */
+public final class IntMatrix {
+    private final int[] data;
+    private final int offset;
+    private final int stride;
+    private final int rows;
+    private final int columns;
+
+    public IntMatrix(int rows, int columns) {
+        this(new int[checkedLength(rows, columns)], 0, columns, rows, columns);
+    }
+
+    private IntMatrix(int[] data, int offset, int stride, int rows, int columns) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Wrapping an existing row-major array without copying
+     *
+     * @param data    is row-major array of {@code rows * columns} elements
+     * @param rows    is number of rows
+     * @param columns is number of columns
+     * @return {@code matrix} backed by {@code data}
+     */
+    public static IntMatrix wrap(int[] data, int rows, int columns) {
+        if (data.length < checkedLength(rows, columns)) {
+            throw new IllegalArgumentException("Array of length " + data.length + " is too short for " + rows + 'x' + columns);
+        }
+        return new IntMatrix(data, 0, columns, rows, columns);
+    }
+
+    /**
+     * Copying a jagged matrix into a contiguous one
+     *
+     * @param matrix is jagged matrix with rows of equal length
+     * @return {@code matrix} in contiguous layout
+     */
+    public static IntMatrix of(int[][] matrix) {
+        final int rows = matrix.length;
+        final int columns = rows == 0 ? 0 : matrix[0].length;
+        final IntMatrix result = new IntMatrix(rows, columns);
+        for (int row = 0; row < rows; row++) {
+            if (matrix[row].length != columns) {
+                throw new IllegalArgumentException("Row " + row + " has length " + matrix[row].length + ", expected " + columns);
+            }
+            System.arraycopy(matrix[row], 0, result.data, row * columns, columns);
+        }
+        return result;
+    }
+
+    /**
+     * Copying this matrix into a jagged one
+     *
+     * @return {@code matrix} as {@code int[][]}
+     */
+    public int[][] toArray() {
+        final int[][] matrix = new int[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(data, offset + row * stride, matrix[row], 0, columns);
+        }
+        return matrix;
+    }
+
+    /**
+     * Sub-matrix sharing the data of this matrix
+     *
+     * @param firstRow    is first row of the view
+     * @param firstColumn is first column of the view
+     * @param rows        is number of rows of the view
+     * @param columns     is number of columns of the view
+     * @return {@code view} of this matrix
+     */
+    public IntMatrix view(int firstRow, int firstColumn, int rows, int columns) {
+        if (firstRow < 0 || firstColumn < 0 || rows < 0 || columns < 0
+                || firstRow + rows > this.rows || firstColumn + columns > this.columns) {
+            throw new IndexOutOfBoundsException("View [" + firstRow + ", " + firstColumn + "] " + rows + 'x' + columns
+                    + " is out of matrix " + this.rows + 'x' + this.columns);
+        }
+        return new IntMatrix(data, index(firstRow, firstColumn), stride, rows, columns);
+    }
+
+    public int get(int row, int column) {
+        return data[index(row, column)];
+    }
+
+    public void set(int row, int column, int value) {
+        data[index(row, column)] = value;
+    }
+
+    /**
+     * Filling the matrix with zeros
+     */
+    public void clear() {
+        for (int row = 0; row < rows; row++) {
+            final int rowOffset = offset + row * stride;
+            Arrays.fill(data, rowOffset, rowOffset + columns, 0);
+        }
+    }
+
+    /**
+     * Index of element ({@code row}, {@code column}) in {@link #getData()}
+     */
+    public int index(int row, int column) {
+        return offset + row * stride + column;
+    }
+
+    public int[] getData() {
+        return data;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return {@code true} if the matrix is not a view with gaps between rows
+     */
+    public boolean isContiguous() {
+        return stride == columns || rows <= 1;
+    }
+
+    /**
+     * Checking whether this matrix and {@code other} share at least one element, e.g. overlapping views of one matrix.
+     * Views of one matrix are compared as rectangles, other matrices on the same array by their ranges of indexes
+     *
+     * @param other is another matrix
+     * @return {@code true} if writing this matrix may change {@code other}
+     */
+    boolean overlaps(IntMatrix other) {
+        if (data != other.data || rows == 0 || columns == 0 || other.rows == 0 || other.columns == 0) {
+            return false;
+        }
+        if (stride == other.stride) {
+            final int firstRow = offset / stride;
+            final int firstColumn = offset % stride;
+            final int otherFirstRow = other.offset / stride;
+            final int otherFirstColumn = other.offset % stride;
+            return firstRow < otherFirstRow + other.rows && otherFirstRow < firstRow + rows
+                    && firstColumn < otherFirstColumn + other.columns && otherFirstColumn < firstColumn + columns;
+        }
+        return offset <= other.index(other.rows - 1, other.columns - 1) && other.offset <= index(rows - 1, columns - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "IntMatrix " + rows + 'x' + columns;
+    }
+
+    private static int checkedLength(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Negative matrix size: " + rows + 'x' + columns);
+        }
+        return Math.multiplyExact(rows, columns);
+    }
+}
@@ -0,0 +1,101 @@
+package org.zcorp.java3.matrix;
+
+/**
+ * Batch of {@code count} matrices of equal shape in one contiguous array, matrix {@code i} starts at
+ * {@code i * rows * columns} (strided batch layout). Matrices of a batch are views of one {@link IntMatrix},
+ * so a whole batch is allocated, filled and read with one array
+ */
+public final class IntMatrixBatch {
+    private final IntMatrix matrices;
+    private final int count;
+    private final int rows;
+    private final int columns;
+
+    public IntMatrixBatch(int count, int rows, int columns) {
+        this(new IntMatrix(Math.multiplyExact(count, rows), columns), count, rows, columns);
+    }
+
+    private IntMatrixBatch(IntMatrix matrices, int count, int rows, int columns) {
+        this.matrices = matrices;
+        this.count = count;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Wrapping an existing array without copying
+     *
+     * @param data    is array of {@code count * rows * columns} elements
+     * @param count   is number of matrices
+     * @param rows    is number of rows of every matrix
+     * @param columns is number of columns of every matrix
+     * @return {@code batch} backed by {@code data}
+     */
+    public static IntMatrixBatch wrap(int[] data, int count, int rows, int columns) {
+        return new IntMatrixBatch(IntMatrix.wrap(data, Math.multiplyExact(count, rows), columns), count, rows, columns);
+    }
+
+    /**
+     * Copying jagged matrices of equal shape into a batch
+     *
+     * @param matrices is matrices to copy
+     * @return {@code batch} of copies
+     */
+    public static IntMatrixBatch of(int[][]... matrices) {
+        final int rows = matrices.length == 0 ? 0 : matrices[0].length;
+        final int columns = rows == 0 ? 0 : matrices[0][0].length;
+        final IntMatrixBatch batch = new IntMatrixBatch(matrices.length, rows, columns);
+        for (int i = 0; i < matrices.length; i++) {
+            if (matrices[i].length != rows) {
+                throw new IllegalArgumentException("Matrix " + i + " has " + matrices[i].length + " rows, expected " + rows);
+            }
+            final IntMatrix matrix = batch.get(i);
+            for (int row = 0; row < rows; row++) {
+                if (matrices[i][row].length != columns) {
+                    throw new IllegalArgumentException("Row " + row + " of matrix " + i + " has length " + matrices[i][row].length + ", expected " + columns);
+                }
+                System.arraycopy(matrices[i][row], 0, matrix.getData(), matrix.index(row, 0), columns);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @param index is index of matrix in the batch
+     * @return {@code matrix} sharing the data of the batch
+     */
+    public IntMatrix get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Matrix " + index + " is out of batch of " + count);
+        }
+        return matrices.view(index * rows, 0, rows, columns);
+    }
+
+    public int[] getData() {
+        return matrices.getData();
+    }
+
+    /**
+     * @return {@code true} if this batch and {@code other} share at least one element
+     */
+    boolean overlaps(IntMatrixBatch other) {
+        return matrices.overlaps(other.matrices);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return "IntMatrixBatch " + count + " x " + rows + 'x' + columns;
+    }
+}
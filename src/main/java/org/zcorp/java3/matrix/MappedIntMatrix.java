@@ -0,0 +1,192 @@
+package org.zcorp.java3.matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File-backed int matrix: {@code rows * columns} ints in row-major order mapped by {@link FileChannel#map}.
+ * A single mapping is limited to 2 GB, so the file is mapped by segments of whole rows.
+ * Data lives in the page cache, not on the heap, and is accessed by tiles copied to/from heap {@link IntMatrix}.
+ * Tiles of disjoint regions may be read and written concurrently.
+ * Mappings are released by the garbage collector after {@link #close()}.
+ * {@link MatrixFile#map} maps a file with a header
+ */
+public final class MappedIntMatrix implements Closeable {
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final IntBuffer[] segments;
+    private final MappedByteBuffer[] mappings;
+    private final int rows;
+    private final int columns;
+    private final int rowsPerSegment;
+
+    MappedIntMatrix(FileChannel channel, long dataOffset, int rows, int columns, ByteOrder order, boolean readOnly) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Negative matrix size: " + rows + 'x' + columns);
+        }
+        final long rowBytes = (long) columns * Integer.BYTES;
+        if (rowBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Row of " + columns + " ints doesn't fit into one mapping");
+        }
+        this.channel = channel;
+        this.rows = rows;
+        this.columns = columns;
+        this.rowsPerSegment = rowBytes == 0 ? Math.max(1, rows) : (int) Math.min(Math.max(1, rows), MAX_SEGMENT_BYTES / rowBytes);
+
+        final int segmentsCount = (rows + rowsPerSegment - 1) / rowsPerSegment;
+        segments = new IntBuffer[segmentsCount];
+        mappings = new MappedByteBuffer[segmentsCount];
+        final FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+        for (int segment = 0; segment < segmentsCount; segment++) {
+            final int segmentRows = Math.min(rowsPerSegment, rows - segment * rowsPerSegment);
+            mappings[segment] = channel.map(mode, dataOffset + segment * rowsPerSegment * rowBytes, segmentRows * rowBytes);
+            mappings[segment].order(order);
+            segments[segment] = mappings[segment].asIntBuffer();
+        }
+    }
+
+    /**
+     * Creating (or truncating) a file of {@code rows * columns} zeros in native byte order
+     *
+     * @param path    is file path
+     * @param rows    is number of rows
+     * @param columns is number of columns
+     * @return {@code matrix} mapped for reading and writing
+     */
+    public static MappedIntMatrix create(Path path, int rows, int columns) throws IOException {
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return map(channel, 0, rows, columns, ByteOrder.nativeOrder(), false);
+    }
+
+    /**
+     * Opening an existing file of {@code rows * columns} ints in native byte order
+     *
+     * @param path     is file path
+     * @param rows     is number of rows
+     * @param columns  is number of columns
+     * @param readOnly is {@code true} to map the file for reading only
+     * @return {@code matrix} mapped from the file
+     */
+    public static MappedIntMatrix open(Path path, int rows, int columns, boolean readOnly) throws IOException {
+        final FileChannel channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final long expectedSize = (long) rows * columns * Integer.BYTES;
+        if (channel.size() < expectedSize) {
+            channel.close();
+            throw new IllegalArgumentException("File " + path + " of " + channel.size() + " bytes is too short for " + rows + 'x' + columns);
+        }
+        return map(channel, 0, rows, columns, ByteOrder.nativeOrder(), readOnly);
+    }
+
+    static MappedIntMatrix map(FileChannel channel, long dataOffset, int rows, int columns, ByteOrder order, boolean readOnly) throws IOException {
+        try {
+            return new MappedIntMatrix(channel, dataOffset, rows, columns, order, readOnly);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int get(int row, int column) {
+        checkIndex(row, column, 1, 1);
+        return segments[row / rowsPerSegment].get(segmentIndex(row, column));
+    }
+
+    public void set(int row, int column, int value) {
+        checkIndex(row, column, 1, 1);
+        segments[row / rowsPerSegment].put(segmentIndex(row, column), value);
+    }
+
+    /**
+     * Copying the region starting at ({@code firstRow}, {@code firstColumn}) of the size of {@code tile} into {@code tile}
+     *
+     * @param firstRow    is first row of the region
+     * @param firstColumn is first column of the region
+     * @param tile        is heap matrix (or view) to fill
+     */
+    public void readTile(int firstRow, int firstColumn, IntMatrix tile) {
+        checkIndex(firstRow, firstColumn, tile.getRows(), tile.getColumns());
+        IntBuffer buffer = null;
+        int bufferSegment = -1;
+        for (int row = 0; row < tile.getRows(); row++) {
+            final int segment = (firstRow + row) / rowsPerSegment;
+            if (segment != bufferSegment) {
+                buffer = segments[segment].duplicate();
+                bufferSegment = segment;
+            }
+            ((Buffer) buffer).position(segmentIndex(firstRow + row, firstColumn));
+            buffer.get(tile.getData(), tile.index(row, 0), tile.getColumns());
+        }
+    }
+
+    /**
+     * Copying {@code tile} into the region starting at ({@code firstRow}, {@code firstColumn})
+     *
+     * @param firstRow    is first row of the region
+     * @param firstColumn is first column of the region
+     * @param tile        is heap matrix (or view) to store
+     */
+    public void writeTile(int firstRow, int firstColumn, IntMatrix tile) {
+        checkIndex(firstRow, firstColumn, tile.getRows(), tile.getColumns());
+        IntBuffer buffer = null;
+        int bufferSegment = -1;
+        for (int row = 0; row < tile.getRows(); row++) {
+            final int segment = (firstRow + row) / rowsPerSegment;
+            if (segment != bufferSegment) {
+                buffer = segments[segment].duplicate();
+                bufferSegment = segment;
+            }
+            ((Buffer) buffer).position(segmentIndex(firstRow + row, firstColumn));
+            buffer.put(tile.getData(), tile.index(row, 0), tile.getColumns());
+        }
+    }
+
+    /**
+     * Writing modified pages to the storage device
+     */
+    public void force() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "MappedIntMatrix " + rows + 'x' + columns;
+    }
+
+    private int segmentIndex(int row, int column) {
+        return (row % rowsPerSegment) * columns + column;
+    }
+
+    private void checkIndex(int firstRow, int firstColumn, int rows, int columns) {
+        if (firstRow < 0 || firstColumn < 0 || rows < 0 || columns < 0
+                || (long) firstRow + rows > this.rows || (long) firstColumn + columns > this.columns) {
+            throw new IndexOutOfBoundsException("Region [" + firstRow + ", " + firstColumn + "] " + rows + 'x' + columns
+                    + " is out of matrix " + this.rows + 'x' + this.columns);
+        }
+    }
+}
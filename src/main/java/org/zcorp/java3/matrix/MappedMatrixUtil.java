@@ -0,0 +1,111 @@
+package org.zcorp.java3.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Out-of-core multiplication of {@link MappedIntMatrix} operands which don't fit into the heap.
+ * Each task owns one {@code tileSize} x {@code tileSize} tile of the result: it streams the row panel of
+ * {@code matrixA} and the column panel of {@code matrixB} tile by tile through heap buffers, accumulates
+ * the tile on the heap and writes it back once. So the heap holds at most 3 tiles per running task
+ * regardless of the matrix size, the rest is paged in and out by the OS
+ */
+public class MappedMatrixUtil {
+    public static final int DEFAULT_TILE_SIZE = 1024;
+
+    /**
+     * Multithreading tiled multiplication of two file-backed matrices with the default tile size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB},
+     * {@code matrixC} is {@code matrixA.getRows()} x {@code matrixB.getColumns()}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param matrixC  is destination matrix, its values are overwritten
+     * @param executor is {@code ExecutorService} to submit tasks
+     */
+    public static void multiply(MappedIntMatrix matrixA, MappedIntMatrix matrixB, MappedIntMatrix matrixC,
+                                ExecutorService executor) throws InterruptedException, ExecutionException {
+        multiply(matrixA, matrixB, matrixC, executor, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Multithreading tiled multiplication of two file-backed matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB},
+     * {@code matrixC} is {@code matrixA.getRows()} x {@code matrixB.getColumns()}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param matrixC  is destination matrix, its values are overwritten
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @param tileSize is size of square tile kept on the heap, a task needs {@code 3 * 4 * tileSize^2} bytes
+     */
+    public static void multiply(MappedIntMatrix matrixA, MappedIntMatrix matrixB, MappedIntMatrix matrixC,
+                                ExecutorService executor, int tileSize) throws InterruptedException, ExecutionException {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        final int rows = matrixA.getRows();
+        final int inner = matrixA.getColumns();
+        final int columns = matrixB.getColumns();
+        if (matrixB.getRows() != inner) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matrixA + " and " + matrixB);
+        }
+        if (matrixC.getRows() != rows || matrixC.getColumns() != columns) {
+            throw new IllegalArgumentException("Destination matrix must be " + rows + 'x' + columns + ": " + matrixC);
+        }
+        final int blockSize = MatrixUtil.getBlockSize();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int row = 0; row < rows; row += tileSize) {
+            for (int column = 0; column < columns; column += tileSize) {
+                final int firstRow = row;
+                final int firstColumn = column;
+                final int tileRows = Math.min(tileSize, rows - row);
+                final int tileColumns = Math.min(tileSize, columns - column);
+                tasks.add(() -> {
+                    final IntMatrix tileA = new IntMatrix(tileRows, Math.min(tileSize, inner));
+                    final IntMatrix tileB = new IntMatrix(Math.min(tileSize, inner), tileColumns);
+                    final IntMatrix tileC = new IntMatrix(tileRows, tileColumns);
+                    for (int k = 0; k < inner; k += tileSize) {
+                        final int tileInner = Math.min(tileSize, inner - k);
+                        final IntMatrix partA = tileA.view(0, 0, tileRows, tileInner);
+                        final IntMatrix partB = tileB.view(0, 0, tileInner, tileColumns);
+                        matrixA.readTile(firstRow, k, partA);
+                        matrixB.readTile(k, firstColumn, partB);
+                        MatrixUtil.multiplyAdd(partA, partB, tileC, blockSize);
+                    }
+                    matrixC.writeTile(firstRow, firstColumn, tileC);
+                    return null;
+                });
+            }
+        }
+
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    /**
+     * Filling a file-backed matrix with random values row by row
+     *
+     * @param matrix is matrix to fill
+     * @param seed   is seed of {@code Random}
+     */
+    public static void fillRandom(MappedIntMatrix matrix, long seed) {
+        final Random random = new Random(seed);
+        final IntMatrix row = new IntMatrix(1, matrix.getColumns());
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int column = 0; column < matrix.getColumns(); column++) {
+                row.set(0, column, random.nextInt(10));
+            }
+            matrix.writeTile(i, 0, row);
+        }
+    }
+}
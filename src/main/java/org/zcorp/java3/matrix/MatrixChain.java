@@ -0,0 +1,205 @@
+package org.zcorp.java3.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Product of a chain of matrices {@code A1 * A2 * ... * An}.
+ * The order of multiplications is chosen by the classical dynamic programming on the dimensions,
+ * which minimizes the number of multiply-adds (e.g. 10x1000 * 1000x10 * 10x1000 costs 2*10^5 instead of 2*10^7).
+ * The two operands of every product are independent sub-chains and are computed in parallel by fork/join.
+ * Intermediate products are taken from a pool of buffers and returned to it as soon as they are consumed
+ */
+public class MatrixChain {
+
+    /**
+     * Multiplication of a chain of matrices in the optimal order
+     * Assumption:
+     * number of columns of every matrix is equal to number of rows of the next one
+     *
+     * @param pool     is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @param matrices is chain of at least one matrix
+     * @return {@code matrix} is a multiplication of {@code matrices}
+     */
+    public static int[][] multiply(ForkJoinPool pool, int[][]... matrices) {
+        final IntMatrix[] flatMatrices = new IntMatrix[matrices.length];
+        for (int i = 0; i < matrices.length; i++) {
+            flatMatrices[i] = IntMatrix.of(matrices[i]);
+        }
+        return multiply(pool, flatMatrices).toArray();
+    }
+
+    /**
+     * Multiplication of a chain of contiguous matrices in the optimal order
+     * Assumption:
+     * number of columns of every matrix is equal to number of rows of the next one
+     *
+     * @param pool     is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @param matrices is chain of at least one matrix
+     * @return {@code matrix} is a multiplication of {@code matrices}, a new matrix even for a chain of one
+     */
+    public static IntMatrix multiply(ForkJoinPool pool, IntMatrix... matrices) {
+        final int[][] splits = order(dimensions(matrices));
+        return pool.invoke(new ChainTask(matrices, splits, 0, matrices.length - 1, new BufferPool(), true));
+    }
+
+    /**
+     * Optimal parenthesization of a chain, e.g. {@code ((A0 A1) A2)}
+     *
+     * @param matrices is chain of at least one matrix
+     * @return {@code order} of multiplications
+     */
+    public static String plan(IntMatrix... matrices) {
+        final int[][] splits = order(dimensions(matrices));
+        final StringBuilder plan = new StringBuilder();
+        appendPlan(plan, splits, 0, matrices.length - 1);
+        return plan.toString();
+    }
+
+    /**
+     * Number of multiply-adds of the optimal order
+     *
+     * @param matrices is chain of at least one matrix
+     * @return {@code cost} of the chain
+     */
+    public static long cost(IntMatrix... matrices) {
+        final int[] dimensions = dimensions(matrices);
+        final int[][] splits = order(dimensions);
+        return cost(dimensions, splits, 0, matrices.length - 1);
+    }
+
+    /**
+     * @return {@code dimensions}: matrix {@code i} is {@code dimensions[i]} x {@code dimensions[i + 1]}
+     */
+    private static int[] dimensions(IntMatrix[] matrices) {
+        if (matrices.length == 0) {
+            throw new IllegalArgumentException("Empty chain of matrices");
+        }
+        final int[] dimensions = new int[matrices.length + 1];
+        dimensions[0] = matrices[0].getRows();
+        for (int i = 0; i < matrices.length; i++) {
+            if (matrices[i].getRows() != dimensions[i]) {
+                throw new IllegalArgumentException("Matrices can't be multiplied: " + matrices[i - 1] + " and " + matrices[i]);
+            }
+            dimensions[i + 1] = matrices[i].getColumns();
+        }
+        return dimensions;
+    }
+
+    /**
+     * Dynamic programming: {@code cost[i][j]} is the minimal cost of {@code Ai..Aj},
+     * {@code splits[i][j]} is {@code k} such that the last product is {@code (Ai..Ak) * (Ak+1..Aj)}
+     */
+    private static int[][] order(int[] dimensions) {
+        final int count = dimensions.length - 1;
+        final long[][] cost = new long[count][count];
+        final int[][] splits = new int[count][count];
+        for (int length = 2; length <= count; length++) {
+            for (int i = 0; i + length - 1 < count; i++) {
+                final int j = i + length - 1;
+                cost[i][j] = Long.MAX_VALUE;
+                for (int k = i; k < j; k++) {
+                    final long candidate = cost[i][k] + cost[k + 1][j] + (long) dimensions[i] * dimensions[k + 1] * dimensions[j + 1];
+                    if (candidate < cost[i][j]) {
+                        cost[i][j] = candidate;
+                        splits[i][j] = k;
+                    }
+                }
+            }
+        }
+        return splits;
+    }
+
+    private static long cost(int[] dimensions, int[][] splits, int first, int last) {
+        if (first == last) {
+            return 0;
+        }
+        final int split = splits[first][last];
+        return cost(dimensions, splits, first, split) + cost(dimensions, splits, split + 1, last)
+                + (long) dimensions[first] * dimensions[split + 1] * dimensions[last + 1];
+    }
+
+    private static void appendPlan(StringBuilder plan, int[][] splits, int first, int last) {
+        if (first == last) {
+            plan.append('A').append(first);
+            return;
+        }
+        plan.append('(');
+        appendPlan(plan, splits, first, splits[first][last]);
+        plan.append(' ');
+        appendPlan(plan, splits, splits[first][last] + 1, last);
+        plan.append(')');
+    }
+
+    /**
+     * Product of sub-chain [{@code first}, {@code last}]
+     */
+    private static class ChainTask extends RecursiveTask<IntMatrix> {
+        private final IntMatrix[] matrices;
+        private final int[][] splits;
+        private final int first;
+        private final int last;
+        private final BufferPool buffers;
+        private final boolean result;
+
+        ChainTask(IntMatrix[] matrices, int[][] splits, int first, int last, BufferPool buffers, boolean result) {
+            this.matrices = matrices;
+            this.splits = splits;
+            this.first = first;
+            this.last = last;
+            this.buffers = buffers;
+            this.result = result;
+        }
+
+        @Override
+        protected IntMatrix compute() {
+            if (first == last) {
+                return result ? IntMatrix.of(matrices[first].toArray()) : matrices[first];
+            }
+            final int split = splits[first][last];
+            final ChainTask leftTask = new ChainTask(matrices, splits, first, split, buffers, false);
+            final ChainTask rightTask = new ChainTask(matrices, splits, split + 1, last, buffers, false);
+            rightTask.fork();
+            final IntMatrix left = leftTask.compute();
+            final IntMatrix right = rightTask.join();
+
+            final IntMatrix product = result
+                    ? new IntMatrix(left.getRows(), right.getColumns())
+                    : buffers.acquire(left.getRows(), right.getColumns());
+            product.clear();
+            new MultiplyTask(left, right, product, MatrixUtil.getBlockSize()).invoke();
+
+            if (split > first) {
+                buffers.release(left);
+            }
+            if (last > split + 1) {
+                buffers.release(right);
+            }
+            return product;
+        }
+    }
+
+    /**
+     * Free intermediate buffers, a request takes the smallest free buffer which is big enough
+     */
+    private static class BufferPool {
+        private final List<int[]> free = new ArrayList<>();
+
+        synchronized IntMatrix acquire(int rows, int columns) {
+            final int length = Math.multiplyExact(rows, columns);
+            int best = -1;
+            for (int i = 0; i < free.size(); i++) {
+                if (free.get(i).length >= length && (best < 0 || free.get(i).length < free.get(best).length)) {
+                    best = i;
+                }
+            }
+            return IntMatrix.wrap(best < 0 ? new int[length] : free.remove(best), rows, columns);
+        }
+
+        synchronized void release(IntMatrix matrix) {
+            free.add(matrix.getData());
+        }
+    }
+}
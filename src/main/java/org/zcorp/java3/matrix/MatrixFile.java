@@ -0,0 +1,429 @@
+package org.zcorp.java3.matrix;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format of matrices: a 32-byte header followed by raw row-major data.
+ * <pre>
+ * offset size
+ *  0     4    magic "MTRX"
+ *  4     1    version
+ *  5     1    element type: 1 - int, 2 - float, 3 - double
+ *  6     1    byte order of data: 0 - big-endian, 1 - little-endian
+ *  7     1    reserved
+ *  8     4    rows
+ * 12     4    columns
+ * 16     16   reserved
+ * </pre>
+ * Header fields are big-endian, data is written in native order, so loading on the same platform
+ * is a plain copy and an int file can be {@link #map mapped} as {@link MappedIntMatrix} without copying at all.
+ * Reading and writing stream through one direct buffer of {@code 1 MB}, the file is never held on the heap twice
+ */
+public class MatrixFile {
+    public static final int MAGIC = 0x4D545258;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    public static final byte TYPE_INT = 1;
+    public static final byte TYPE_FLOAT = 2;
+    public static final byte TYPE_DOUBLE = 3;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Header of a matrix file
+     */
+    public static final class Header {
+        private final byte type;
+        private final ByteOrder order;
+        private final int rows;
+        private final int columns;
+
+        Header(byte type, ByteOrder order, int rows, int columns) {
+            this.type = type;
+            this.order = order;
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public ByteOrder getOrder() {
+            return order;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String toString() {
+            return "Header: type " + type + ", " + order + ", " + rows + 'x' + columns;
+        }
+    }
+
+    public static void write(Path path, int[][] matrix) throws IOException {
+        final int columns = matrix.length == 0 ? 0 : matrix[0].length;
+        try (Writer writer = new Writer(path, TYPE_INT, matrix.length, columns)) {
+            for (int[] row : matrix) {
+                writer.checkRow(row.length);
+                writer.put(row, 0, columns);
+            }
+        }
+    }
+
+    public static void write(Path path, IntMatrix matrix) throws IOException {
+        try (Writer writer = new Writer(path, TYPE_INT, matrix.getRows(), matrix.getColumns())) {
+            for (int row = 0; row < matrix.getRows(); row++) {
+                writer.put(matrix.getData(), matrix.index(row, 0), matrix.getColumns());
+            }
+        }
+    }
+
+    public static void write(Path path, float[][] matrix) throws IOException {
+        final int columns = matrix.length == 0 ? 0 : matrix[0].length;
+        try (Writer writer = new Writer(path, TYPE_FLOAT, matrix.length, columns)) {
+            for (float[] row : matrix) {
+                writer.checkRow(row.length);
+                writer.put(row, columns);
+            }
+        }
+    }
+
+    public static void write(Path path, double[][] matrix) throws IOException {
+        final int columns = matrix.length == 0 ? 0 : matrix[0].length;
+        try (Writer writer = new Writer(path, TYPE_DOUBLE, matrix.length, columns)) {
+            for (double[] row : matrix) {
+                writer.checkRow(row.length);
+                writer.put(row, columns);
+            }
+        }
+    }
+
+    public static int[][] readIntArray(Path path) throws IOException {
+        try (Reader reader = new Reader(path, TYPE_INT)) {
+            final int[][] matrix = new int[reader.header.rows][reader.header.columns];
+            for (int[] row : matrix) {
+                reader.get(row, 0, row.length);
+            }
+            return matrix;
+        }
+    }
+
+    public static IntMatrix readIntMatrix(Path path) throws IOException {
+        try (Reader reader = new Reader(path, TYPE_INT)) {
+            final IntMatrix matrix = new IntMatrix(reader.header.rows, reader.header.columns);
+            reader.get(matrix.getData(), 0, matrix.getData().length);
+            return matrix;
+        }
+    }
+
+    public static float[][] readFloatArray(Path path) throws IOException {
+        try (Reader reader = new Reader(path, TYPE_FLOAT)) {
+            final float[][] matrix = new float[reader.header.rows][reader.header.columns];
+            for (float[] row : matrix) {
+                reader.get(row);
+            }
+            return matrix;
+        }
+    }
+
+    public static double[][] readDoubleArray(Path path) throws IOException {
+        try (Reader reader = new Reader(path, TYPE_DOUBLE)) {
+            final double[][] matrix = new double[reader.header.rows][reader.header.columns];
+            for (double[] row : matrix) {
+                reader.get(row);
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * Reading only the header of a matrix file
+     *
+     * @param path is file path
+     * @return {@code header} of the file
+     */
+    public static Header readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(channel, path);
+        }
+    }
+
+    /**
+     * Zero-copy load: mapping the data of an int matrix file, elements are read from the page cache on access
+     *
+     * @param path     is file path
+     * @param readOnly is {@code true} to map the file for reading only
+     * @return {@code matrix} backed by the file
+     */
+    public static MappedIntMatrix map(Path path, boolean readOnly) throws IOException {
+        final FileChannel channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final Header header;
+        try {
+            header = readHeader(channel, path);
+            checkType(header, TYPE_INT, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return MappedIntMatrix.map(channel, HEADER_SIZE, header.rows, header.columns, header.order, readOnly);
+    }
+
+    /**
+     * Creating an int matrix file of zeros mapped for writing, e.g. for the result of
+     * {@link MappedMatrixUtil#multiply}
+     *
+     * @param path    is file path
+     * @param rows    is number of rows
+     * @param columns is number of columns
+     * @return {@code matrix} backed by the file
+     */
+    public static MappedIntMatrix create(Path path, int rows, int columns) throws IOException {
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeHeader(channel, TYPE_INT, rows, columns);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return MappedIntMatrix.map(channel, HEADER_SIZE, rows, columns, ByteOrder.nativeOrder(), false);
+    }
+
+    private static void writeHeader(FileChannel channel, byte type, int rows, int columns) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Negative matrix size: " + rows + 'x' + columns);
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .put((byte) VERSION)
+                .put(type)
+                .put((byte) (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? 0 : 1))
+                .put((byte) 0)
+                .putInt(rows)
+                .putInt(columns);
+        ((Buffer) header).clear();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel, Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("File " + path + " is too short for a matrix header");
+            }
+        }
+        ((Buffer) buffer).flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("File " + path + " is not a matrix file");
+        }
+        final int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of matrix file " + path);
+        }
+        final byte type = buffer.get();
+        final ByteOrder order = buffer.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        buffer.get();
+        final Header header = new Header(type, order, buffer.getInt(), buffer.getInt());
+        if (header.rows < 0 || header.columns < 0) {
+            throw new IOException("Negative matrix size in " + path + ": " + header.rows + 'x' + header.columns);
+        }
+        final long expectedSize = HEADER_SIZE + (long) header.rows * header.columns * elementSize(type);
+        if (channel.size() < expectedSize) {
+            throw new EOFException("File " + path + " of " + channel.size() + " bytes is too short for " + header);
+        }
+        return header;
+    }
+
+    private static void checkType(Header header, byte type, Path path) throws IOException {
+        if (header.type != type) {
+            throw new IOException("File " + path + " contains matrix of type " + header.type + ", expected " + type);
+        }
+    }
+
+    private static int elementSize(byte type) throws IOException {
+        switch (type) {
+            case TYPE_INT:
+            case TYPE_FLOAT:
+                return 4;
+            case TYPE_DOUBLE:
+                return 8;
+            default:
+                throw new IOException("Unknown element type " + type);
+        }
+    }
+
+    /**
+     * Streaming writer: elements are put into a direct buffer which is written to the channel when full
+     */
+    private static class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        private final int columns;
+
+        Writer(Path path, byte type, int rows, int columns) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.columns = columns;
+            try {
+                writeHeader(channel, type, rows, columns);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void checkRow(int length) {
+            if (length != columns) {
+                throw new IllegalArgumentException("Row has length " + length + ", expected " + columns);
+            }
+        }
+
+        void put(int[] data, int from, int length) throws IOException {
+            while (length > 0) {
+                final int count = Math.min(length, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Integer.BYTES);
+                from += count;
+                length -= count;
+                flushIfFull();
+            }
+        }
+
+        void put(float[] data, int length) throws IOException {
+            for (int from = 0; from < length; ) {
+                final int count = Math.min(length - from, buffer.remaining() / Float.BYTES);
+                buffer.asFloatBuffer().put(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Float.BYTES);
+                from += count;
+                flushIfFull();
+            }
+        }
+
+        void put(double[] data, int length) throws IOException {
+            for (int from = 0; from < length; ) {
+                final int count = Math.min(length - from, buffer.remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().put(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Double.BYTES);
+                from += count;
+                flushIfFull();
+            }
+        }
+
+        private void flushIfFull() throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            ((Buffer) buffer).clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Streaming reader: the channel is read into a direct buffer which is drained into arrays
+     */
+    private static class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final Header header;
+        private final Path path;
+
+        Reader(Path path, byte type) throws IOException {
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                header = readHeader(channel, path);
+                checkType(header, type, path);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(header.order);
+            ((Buffer) buffer).limit(0);
+        }
+
+        void get(int[] data, int from, int length) throws IOException {
+            while (length > 0) {
+                fill(Integer.BYTES);
+                final int count = Math.min(length, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().get(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Integer.BYTES);
+                from += count;
+                length -= count;
+            }
+        }
+
+        void get(float[] data) throws IOException {
+            for (int from = 0; from < data.length; ) {
+                fill(Float.BYTES);
+                final int count = Math.min(data.length - from, buffer.remaining() / Float.BYTES);
+                buffer.asFloatBuffer().get(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Float.BYTES);
+                from += count;
+            }
+        }
+
+        void get(double[] data) throws IOException {
+            for (int from = 0; from < data.length; ) {
+                fill(Double.BYTES);
+                final int count = Math.min(data.length - from, buffer.remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().get(data, from, count);
+                ((Buffer) buffer).position(buffer.position() + count * Double.BYTES);
+                from += count;
+            }
+        }
+
+        /**
+         * Making at least {@code bytes} bytes available in the buffer
+         */
+        private void fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Unexpected end of matrix file " + path);
+                }
+            }
+            ((Buffer) buffer).flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.zcorp.java3.matrix;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Streaming multiplication of a feed of matrices by a fixed {@code matrixB}:
+ * <pre>
+ * submit (ingest) -> pack -> multiply -> emit
+ * </pre>
+ * Stages are connected by bounded queues and every stage has its own fixed pool of worker threads,
+ * so packing of the next matrix overlaps with the multiplication of the current one and with the emission
+ * of the previous one. A full queue blocks the stage in front of it, down to {@link #submit}:
+ * a slow sink slows the producer instead of growing the heap.
+ * <ul>
+ * <li>pack copies a jagged matrix into a contiguous {@link IntMatrix}</li>
+ * <li>multiply runs the single threaded blocked kernel, stage parallelism is the parallelism of the whole pipeline</li>
+ * <li>emit converts the result back to {@code int[][]} and passes it to the {@link Sink}</li>
+ * </ul>
+ * With more than one worker per stage results may be emitted out of order, the sequence number of
+ * {@link #submit} is passed along. After a failure the remaining matrices are drained without processing
+ * and the first failure is rethrown by {@link #close()}
+ */
+public class MatrixPipeline implements AutoCloseable {
+
+    /**
+     * Consumer of results, called by emit workers
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(long sequence, int[][] matrixC) throws Exception;
+    }
+
+    private static final Item POISON = new Item(-1, null);
+
+    private final IntMatrix matrixB;
+    private final Sink sink;
+    private final int blockSize = MatrixUtil.getBlockSize();
+
+    private final BlockingQueue<Item> packQueue;
+    private final BlockingQueue<Item> multiplyQueue;
+    private final BlockingQueue<Item> emitQueue;
+
+    private final ExecutorService packExecutor;
+    private final ExecutorService multiplyExecutor;
+    private final ExecutorService emitExecutor;
+    private final int packThreads;
+    private final CountDownLatch emitted;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    // submits hold the read lock from the check of closed to the enqueue, so nothing is enqueued after the poison
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    /**
+     * @param matrixB         is second operand of every multiplication
+     * @param queueCapacity   is capacity of each queue between stages
+     * @param packThreads     is number of pack workers
+     * @param multiplyThreads is number of multiply workers
+     * @param emitThreads     is number of emit workers
+     * @param sink            is consumer of results
+     */
+    public MatrixPipeline(int[][] matrixB, int queueCapacity, int packThreads, int multiplyThreads, int emitThreads, Sink sink) {
+        if (packThreads <= 0 || multiplyThreads <= 0 || emitThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads of every stage must be positive: "
+                    + packThreads + ", " + multiplyThreads + ", " + emitThreads);
+        }
+        this.matrixB = IntMatrix.of(matrixB);
+        this.sink = sink;
+        this.packThreads = packThreads;
+        packQueue = new ArrayBlockingQueue<>(queueCapacity);
+        multiplyQueue = new ArrayBlockingQueue<>(queueCapacity);
+        emitQueue = new ArrayBlockingQueue<>(queueCapacity);
+        packExecutor = Executors.newFixedThreadPool(packThreads);
+        multiplyExecutor = Executors.newFixedThreadPool(multiplyThreads);
+        emitExecutor = Executors.newFixedThreadPool(emitThreads);
+        emitted = new CountDownLatch(emitThreads);
+
+        final AtomicInteger packWorkers = new AtomicInteger(packThreads);
+        for (int i = 0; i < packThreads; i++) {
+            packExecutor.execute(() -> work(packQueue, multiplyQueue, packWorkers, multiplyThreads, this::pack));
+        }
+        final AtomicInteger multiplyWorkers = new AtomicInteger(multiplyThreads);
+        for (int i = 0; i < multiplyThreads; i++) {
+            multiplyExecutor.execute(() -> work(multiplyQueue, emitQueue, multiplyWorkers, emitThreads, this::multiply));
+        }
+        for (int i = 0; i < emitThreads; i++) {
+            emitExecutor.execute(this::emit);
+        }
+    }
+
+    /**
+     * Putting a matrix into the pipeline, blocks while the pack queue is full
+     *
+     * @param matrixA is first operand
+     * @return {@code sequence} number of the matrix, passed to the {@link Sink} with the result
+     */
+    public long submit(int[][] matrixA) throws InterruptedException {
+        if (matrixA.length > 0 && matrixA[0].length != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + matrixA[0].length + " and " + matrixB);
+        }
+        closeLock.readLock().lockInterruptibly();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Pipeline is closed");
+            }
+            final long number = sequence.getAndIncrement();
+            packQueue.put(new Item(number, matrixA));
+            return number;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waiting until all submitted matrices are emitted and stopping the workers
+     *
+     * @throws ExecutionException if a stage or the sink failed
+     */
+    @Override
+    public void close() throws InterruptedException, ExecutionException {
+        final boolean closing;
+        // waits for submits in flight, their matrices are queued before the poison
+        closeLock.writeLock().lockInterruptibly();
+        try {
+            closing = !closed;
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        if (closing) {
+            for (int i = 0; i < packThreads; i++) {
+                packQueue.put(POISON);
+            }
+        }
+        emitted.await();
+        packExecutor.shutdown();
+        multiplyExecutor.shutdown();
+        emitExecutor.shutdown();
+        final Throwable cause = failure.get();
+        if (cause != null) {
+            throw new ExecutionException(cause);
+        }
+    }
+
+    /**
+     * @return number of matrices passed to the {@link Sink}
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return number of matrices waiting in the queues between stages
+     */
+    public int getQueued() {
+        return packQueue.size() + multiplyQueue.size() + emitQueue.size();
+    }
+
+    private Item pack(Item item) {
+        item.matrix = IntMatrix.of(item.source);
+        item.source = null;
+        return item;
+    }
+
+    private Item multiply(Item item) {
+        item.matrix = MatrixUtil.singleThreadBlockedMultiply(item.matrix, matrixB, blockSize);
+        return item;
+    }
+
+    /**
+     * Worker loop of an intermediate stage. The last worker to stop poisons every worker of the next stage
+     */
+    private void work(BlockingQueue<Item> input, BlockingQueue<Item> output, AtomicInteger workers, int nextWorkers, Stage stage) {
+        try {
+            for (Item item = input.take(); item != POISON; item = input.take()) {
+                if (failure.get() == null) {
+                    try {
+                        output.put(stage.process(item));
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+            if (workers.decrementAndGet() == 0) {
+                for (int i = 0; i < nextWorkers; i++) {
+                    output.put(POISON);
+                }
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void emit() {
+        try {
+            for (Item item = emitQueue.take(); item != POISON; item = emitQueue.take()) {
+                if (failure.get() == null) {
+                    try {
+                        sink.accept(item.sequence, item.matrix.toArray());
+                        completed.incrementAndGet();
+                    } catch (Exception | Error e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        } finally {
+            emitted.countDown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        Item process(Item item);
+    }
+
+    private static class Item {
+        private final long sequence;
+        private int[][] source;
+        private IntMatrix matrix;
+
+        Item(long sequence, int[][] source) {
+            this.sequence = sequence;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.zcorp.java3.matrix;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Picks the fastest {@link MatrixUtil} kernel per size bucket and number of processors.
+ * A bucket is {@code log2} of the geometric mean of the dimensions, so 1000x1000x1000 and 500x2000x1000 share it;
+ * square multiplications have buckets of their own, as some strategies support square matrices only.
+ * The first multiplication of a bucket times every candidate strategy on a leading block of the actual operands
+ * of at most {@value #CALIBRATION_WORK} multiply-adds, with a warm-up pass, remembers the fastest and runs it
+ * on the whole operands; later ones go straight to it. A plan not supporting the shape of a multiplication
+ * is calibrated again and replaced. Plans are saved to a properties file and loaded on the next start.
+ * Multiplications of less than {@value #SINGLE_THREAD_WORK} multiply-adds are always single threaded:
+ * submitting tasks costs more than it saves
+ */
+public class MatrixPlanner {
+    public static final long SINGLE_THREAD_WORK = 1 << 21;
+
+    private static final long CALIBRATION_WORK = 1 << 24;
+    private static final int CALIBRATION_PASSES = 3;
+
+    /**
+     * Candidate kernels
+     */
+    public enum Strategy {
+        SINGLE_THREAD_2 {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) {
+                return MatrixUtil.singleThreadMultiply2(matrixA, matrixB);
+            }
+        },
+        SINGLE_THREAD_BLOCKED {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) {
+                return MatrixUtil.singleThreadBlockedMultiply(matrixA, matrixB);
+            }
+        },
+        CONCURRENT_3 {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
+                return MatrixUtil.concurrentMultiply3(matrixA, matrixB, executor);
+            }
+        },
+        CONCURRENT_4 {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
+                return MatrixUtil.concurrentMultiply4(matrixA, matrixB, executor);
+            }
+        },
+        CONCURRENT_BLOCKED {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+                return MatrixUtil.concurrentBlockedMultiply(matrixA, matrixB, executor);
+            }
+        },
+        FORK_JOIN {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) {
+                return MatrixUtil.forkJoinMultiply(matrixA, matrixB, forkJoinPool(executor));
+            }
+        },
+        STRASSEN {
+            @Override
+            public int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) {
+                return MatrixUtil.concurrentStrassenMultiply(matrixA, matrixB, forkJoinPool(executor));
+            }
+
+            @Override
+            boolean supports(int rows, int inner, int columns) {
+                return rows == inner && inner == columns && rows > 2 * MatrixUtil.getStrassenCrossover();
+            }
+        };
+
+        /**
+         * Multiplication of two matrices by this strategy
+         *
+         * @param matrixA  is first matrix
+         * @param matrixB  is second matrix
+         * @param executor is {@code ExecutorService} of concurrent strategies, fork/join ones use it if it is a {@code ForkJoinPool}
+         * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+         */
+        public abstract int[][] multiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException;
+
+        boolean supports(int rows, int inner, int columns) {
+            return true;
+        }
+
+        private static ForkJoinPool forkJoinPool(ExecutorService executor) {
+            return executor instanceof ForkJoinPool ? (ForkJoinPool) executor : ForkJoinPool.commonPool();
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Path planFile;
+    private final int processors;
+    private final Map<String, Strategy> plans = new ConcurrentHashMap<>();
+    private final Map<String, Object> calibrationLocks = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor is {@code ExecutorService} to submit tasks of concurrent strategies, fork/join strategies use it
+     *                 if it is a {@code ForkJoinPool} and the common pool otherwise
+     * @param planFile is properties file to load and save plans, {@code null} to keep them in memory only
+     */
+    public MatrixPlanner(ExecutorService executor, Path planFile) {
+        this.executor = executor;
+        this.planFile = planFile;
+        this.processors = Runtime.getRuntime().availableProcessors();
+        load();
+    }
+
+    /**
+     * Planner used by {@link MatrixUtil#multiply}: its executor is a fixed pool of daemon threads, one per processor,
+     * its plan file is taken from system property {@code matrix.planFile}, default is {@code ~/.matrix-plan.properties}
+     *
+     * @return shared planner
+     */
+    public static MatrixPlanner getDefault() {
+        return DefaultHolder.PLANNER;
+    }
+
+    /**
+     * Multiplication of two matrices by the planned strategy
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public int[][] multiply(int[][] matrixA, int[][] matrixB) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = inner == 0 ? 0 : matrixB[0].length;
+        final long work = (long) rows * inner * columns;
+        if (work < SINGLE_THREAD_WORK) {
+            return Strategy.SINGLE_THREAD_2.multiply(matrixA, matrixB, executor);
+        }
+
+        final String key = key(rows, inner, columns);
+        final Strategy strategy = plans.get(key);
+        if (strategy != null && strategy.supports(rows, inner, columns)) {
+            return strategy.multiply(matrixA, matrixB, executor);
+        }
+        return calibrate(key, matrixA, matrixB);
+    }
+
+    /**
+     * @return planned strategy for the shape or {@code null} if it isn't planned yet
+     */
+    public Strategy getStrategy(int rows, int inner, int columns) {
+        final long work = (long) rows * inner * columns;
+        return work < SINGLE_THREAD_WORK ? Strategy.SINGLE_THREAD_2 : plans.get(key(rows, inner, columns));
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixPlanner: " + processors + " processors, plans " + plans;
+    }
+
+    private int[][] calibrate(String key, int[][] matrixA, int[][] matrixB) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = matrixB[0].length;
+        // one calibration of a bucket at a time: concurrent ones would skew each other's timings
+        synchronized (calibrationLocks.computeIfAbsent(key, k -> new Object())) {
+            final Strategy planned = plans.get(key);
+            if (planned != null && planned.supports(rows, inner, columns)) {
+                return planned.multiply(matrixA, matrixB, executor);
+            }
+            final int[][] result = measure(key, matrixA, matrixB);
+            save();
+            return result;
+        }
+    }
+
+    private int[][] measure(String key, int[][] matrixA, int[][] matrixB) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = matrixB[0].length;
+
+        // the same shape scaled down to CALIBRATION_WORK: timing every strategy on 8k x 8k would cost minutes
+        final double scale = Math.min(1, Math.cbrt((double) CALIBRATION_WORK / ((double) rows * inner * columns)));
+        final int blockRows = Math.max(1, (int) (rows * scale));
+        final int blockInner = Math.max(1, (int) (inner * scale));
+        final int blockColumns = Math.max(1, (int) (columns * scale));
+        final int[][] blockA = leadingBlock(matrixA, blockRows, blockInner);
+        final int[][] blockB = leadingBlock(matrixB, blockInner, blockColumns);
+
+        final List<Strategy> candidates = new ArrayList<>();
+        for (Strategy strategy : Strategy.values()) {
+            if (strategy.supports(rows, inner, columns) && strategy.supports(blockRows, blockInner, blockColumns)) {
+                candidates.add(strategy);
+                // warm-up, so the strategy timed first is not penalized by the JIT
+                strategy.multiply(blockA, blockB, executor);
+            }
+        }
+        final long[] durations = new long[candidates.size()];
+        Arrays.fill(durations, Long.MAX_VALUE);
+        for (int pass = 0; pass < CALIBRATION_PASSES; pass++) {
+            for (int i = 0; i < candidates.size(); i++) {
+                final long start = System.nanoTime();
+                candidates.get(i).multiply(blockA, blockB, executor);
+                durations[i] = Math.min(durations[i], System.nanoTime() - start);
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < candidates.size(); i++) {
+            if (durations[i] < durations[best]) {
+                best = i;
+            }
+        }
+
+        final Strategy bestStrategy = candidates.get(best);
+        plans.put(key, bestStrategy);
+        return bestStrategy.multiply(matrixA, matrixB, executor);
+    }
+
+    /**
+     * @return {@code matrix} itself if it has the requested size, otherwise a copy of its top left block
+     */
+    private static int[][] leadingBlock(int[][] matrix, int rows, int columns) {
+        if (matrix.length == rows && matrix[0].length == columns) {
+            return matrix;
+        }
+        final int[][] block = new int[rows][];
+        for (int row = 0; row < rows; row++) {
+            block[row] = Arrays.copyOf(matrix[row], columns);
+        }
+        return block;
+    }
+
+    /**
+     * Bucket key: number of processors, rounded {@code log2} of the geometric mean of the dimensions and shape class
+     */
+    private String key(int rows, int inner, int columns) {
+        final long work = (long) rows * inner * columns;
+        final int bucket = (int) Math.round(Math.log(work) / Math.log(2) / 3);
+        final boolean square = rows == inner && inner == columns;
+        return "processors." + processors + ".size." + (1 << bucket) + (square ? ".square" : "");
+    }
+
+    private void load() {
+        if (planFile == null || !Files.isRegularFile(planFile)) {
+            return;
+        }
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(planFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                plans.put(key, Strategy.valueOf(properties.getProperty(key)));
+            } catch (IllegalArgumentException e) {
+                // strategy of another version, it will be calibrated again
+            }
+        }
+    }
+
+    private synchronized void save() {
+        if (planFile == null) {
+            return;
+        }
+        final Properties properties = new Properties();
+        for (Map.Entry<String, Strategy> plan : plans.entrySet()) {
+            properties.setProperty(plan.getKey(), plan.getValue().name());
+        }
+        try {
+            final Path directory = planFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path temporary = Files.createTempFile(directory, planFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                properties.store(out, "Fastest MatrixUtil strategies by number of processors, size and shape");
+            }
+            Files.move(temporary, planFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the plan stays in memory and will be calibrated again after restart
+        }
+    }
+
+    private static class DefaultHolder {
+        private static final MatrixPlanner PLANNER = new MatrixPlanner(
+                Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "matrix-planner");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                Paths.get(System.getProperty("matrix.planFile",
+                        Paths.get(System.getProperty("user.home"), ".matrix-plan.properties").toString())));
+    }
+}
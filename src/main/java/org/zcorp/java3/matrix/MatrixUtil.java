@@ -1,19 +1,42 @@
 package org.zcorp.java3.matrix;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
 
 public class MatrixUtil {
+    public static final int DEFAULT_STRASSEN_CROSSOVER = 256;
+
+    private static final int MIN_TASK_WORK = 1 << 18;
+    private static final int EXACT_STRIPE_ROWS = 16;
+
+    /**
+     * Multiplication of two matrices by the kernel which {@link MatrixPlanner#getDefault()} found fastest
+     * for this size and number of processors. Small matrices are multiplied in the calling thread
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] multiply(int[][] matrixA, int[][] matrixB) throws InterruptedException, ExecutionException {
+        checkShapes(matrixA, matrixB);
+        return MatrixPlanner.getDefault().multiply(matrixA, matrixB);
+    }
 
     /**
      * Multithreading multiplication (variant 1) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -21,23 +44,25 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply1(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
         CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
 
-        for (int column = 0; column < matrixSize; column++) {
+        for (int column = 0; column < columns; column++) {
             final int columnNumber = column;
-            final int columnB[] = new int[matrixSize];
-            for (int k = 0; k < matrixSize; k++) {
+            final int columnB[] = new int[inner];
+            for (int k = 0; k < inner; k++) {
                 columnB[k] = matrixB[k][column];
             }
 
             completionService.submit(() -> {
-                for (int row = 0; row < matrixSize; row++) {
+                for (int row = 0; row < rows; row++) {
                     int rowA[] = matrixA[row];
                     int sum = 0;
-                    for (int k = 0; k < matrixSize; k++) {
+                    for (int k = 0; k < inner; k++) {
                         sum += rowA[k] * columnB[k];
                     }
                     matrixC[row][columnNumber] = sum;
@@ -46,7 +71,7 @@ public class MatrixUtil {
             });
         }
 
-        for (int task = 0; task < matrixSize; task++) {
+        for (int task = 0; task < columns; task++) {
             completionService.take();
         }
 
@@ -56,7 +81,7 @@ public class MatrixUtil {
     /**
      * Multithreading multiplication (variant 2) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -64,8 +89,10 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply2(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
         class ColumnMultiplyResult {
             private final int columnNumber;
@@ -79,19 +106,19 @@ public class MatrixUtil {
 
         final CompletionService<ColumnMultiplyResult> completionService = new ExecutorCompletionService<>(executor);
 
-        for (int column = 0; column < matrixSize; column++) {
+        for (int column = 0; column < columns; column++) {
             final int columnNumber = column;
-            final int columnB[] = new int[matrixSize];
-            for (int k = 0; k < matrixSize; k++) {
+            final int columnB[] = new int[inner];
+            for (int k = 0; k < inner; k++) {
                 columnB[k] = matrixB[k][column];
             }
             completionService.submit(() -> {
-                final int columnC[] = new int[matrixSize];
+                final int columnC[] = new int[rows];
 
-                for (int row = 0; row < matrixSize; row++) {
+                for (int row = 0; row < rows; row++) {
                     int rowA[] = matrixA[row];
                     int sum = 0;
-                    for (int k = 0; k < matrixSize; k++) {
+                    for (int k = 0; k < inner; k++) {
                         sum += rowA[k] * columnB[k];
                     }
                     columnC[row] = sum;
@@ -101,9 +128,9 @@ public class MatrixUtil {
             });
         }
 
-        for (int task = 0; task < matrixSize; task++) {
+        for (int task = 0; task < columns; task++) {
             ColumnMultiplyResult res = completionService.take().get();
-            for (int row = 0; row < matrixSize; row++) {
+            for (int row = 0; row < rows; row++) {
                 matrixC[row][res.columnNumber] = res.columnC[row];
             }
         }
@@ -112,9 +139,10 @@ public class MatrixUtil {
     }
 
     /**
-     * Multithreading multiplication (variant 3) of two matrices
+     * Multithreading multiplication (variant 3) of two matrices.
+     * Every task computes a stripe of rows, stripe height depends on the shape so that tasks are not too small
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -122,30 +150,49 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply3(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        return concurrentMultiply3(matrixA, matrixB, new int[matrixA.length][checkShapes(matrixA, matrixB)], executor, new MatrixWorkspace());
+    }
 
-        final int[][] matrixBT = new int[matrixSize][matrixSize];
-        for (int row = 0; row < matrixSize; row++) {
-            for (int column = 0; column < matrixSize; column++) {
-                matrixBT[column][row] = matrixB[row][column];
-            }
-        }
+    /**
+     * Multithreading multiplication (variant 3) of two matrices into {@code matrixC} without allocation of
+     * the result and of transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param workspace is reusable scratch space
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply3(int[][] matrixA, int[][] matrixB, int[][] matrixC,
+                                              ExecutorService executor, MatrixWorkspace workspace) throws InterruptedException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+
+        final int[][] matrixBT = transpose(matrixB, workspace.jaggedBuffer(columns, inner));
 
-        List<Callable<Void>> tasks = new ArrayList<>(matrixSize);
+        final int rowsPerTask = rowsPerTask(inner, columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
 
-        for (int row = 0; row < matrixSize; row++) {
-            final int rowNumber = row;
-            final int rowA[] = matrixA[rowNumber];
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
 
             tasks.add(() -> {
-                for (int column = 0; column < matrixSize; column++) {
-                    int columnB[] = matrixBT[column];
-                    int sum = 0;
-                    for (int k = 0; k < matrixSize; k++) {
-                        sum += rowA[k] * columnB[k];
+                for (int rowNumber = firstRow; rowNumber < lastRow; rowNumber++) {
+                    int rowA[] = matrixA[rowNumber];
+                    for (int column = 0; column < columns; column++) {
+                        int columnB[] = matrixBT[column];
+                        int sum = 0;
+                        for (int k = 0; k < inner; k++) {
+                            sum += rowA[k] * columnB[k];
+                        }
+                        matrixC[rowNumber][column] = sum;
                     }
-                    matrixC[rowNumber][column] = sum;
                 }
                 return null;
             });
@@ -157,9 +204,10 @@ public class MatrixUtil {
     }
 
     /**
-     * Multithreading multiplication (variant 4) of two matrices
+     * Multithreading multiplication (variant 4) of two matrices.
+     * Work is split between threads of {@code executor} by rows, or by columns when there are fewer rows than threads
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -167,34 +215,55 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply4(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        return concurrentMultiply4(matrixA, matrixB, new int[matrixA.length][checkShapes(matrixA, matrixB)], executor, new MatrixWorkspace());
+    }
 
-        final int[][] matrixBT = new int[matrixSize][matrixSize];
-        for (int row = 0; row < matrixSize; row++) {
-            for (int column = 0; column < matrixSize; column++) {
-                matrixBT[column][row] = matrixB[row][column];
-            }
-        }
+    /**
+     * Multithreading multiplication (variant 4) of two matrices into {@code matrixC} without allocation of
+     * the result and of transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param workspace is reusable scratch space
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply4(int[][] matrixA, int[][] matrixB, int[][] matrixC,
+                                              ExecutorService executor, MatrixWorkspace workspace) throws InterruptedException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+
+        final int[][] matrixBT = transpose(matrixB, workspace.jaggedBuffer(columns, inner));
 
         List<Callable<Void>> tasks = new ArrayList<>();
 
-        int processorsCount = Runtime.getRuntime().availableProcessors();
-        int rowsCountPerProcessor = matrixSize / processorsCount;
-        if (rowsCountPerProcessor == 0) {
-            processorsCount = matrixSize;
-            rowsCountPerProcessor = 1;
+        int processorsCount = parallelism(executor);
+        final boolean splitByRows = rows >= processorsCount || rows >= columns;
+        final int splitSize = splitByRows ? rows : columns;
+        int countPerProcessor = splitSize / processorsCount;
+        if (countPerProcessor == 0) {
+            processorsCount = splitSize;
+            countPerProcessor = 1;
         }
 
         for (int processor = 1; processor <= processorsCount; processor++) {
-            int firstRowNumber = rowsCountPerProcessor * (processor - 1);
-            int lastRowNumber = processor == processorsCount ? matrixSize - 1 : rowsCountPerProcessor * processor - 1;
+            int first = countPerProcessor * (processor - 1);
+            int last = processor == processorsCount ? splitSize - 1 : countPerProcessor * processor - 1;
+            int firstRowNumber = splitByRows ? first : 0;
+            int lastRowNumber = splitByRows ? last : rows - 1;
+            int firstColumnNumber = splitByRows ? 0 : first;
+            int lastColumnNumber = splitByRows ? columns - 1 : last;
 
             tasks.add(() -> {
                 for (int row = firstRowNumber; row <= lastRowNumber; row++) {
-                    for (int column = 0; column < matrixSize; column++) {
+                    for (int column = firstColumnNumber; column <= lastColumnNumber; column++) {
                         int sum = 0;
-                        for (int k = 0; k < matrixSize; k++) {
+                        for (int k = 0; k < inner; k++) {
                             sum += matrixA[row][k] * matrixBT[column][k];
                         }
                         matrixC[row][column] = sum;
@@ -209,10 +278,113 @@ public class MatrixUtil {
         return matrixC;
     }
 
+    /**
+     * Multithreading multiplication (variant 3) of a matrix and a packed one.
+     * The transposition of {@code matrixB} is done once by {@link PackedMatrix#of} instead of every call
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply3(int[][] matrixA, PackedMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
+        final int[] dataBT = matrixB.getTransposed().getData();
+
+        final int rowsPerTask = rowsPerTask(inner, columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+
+            tasks.add(() -> {
+                for (int rowNumber = firstRow; rowNumber < lastRow; rowNumber++) {
+                    int rowA[] = matrixA[rowNumber];
+                    for (int column = 0, columnB = 0; column < columns; column++, columnB += inner) {
+                        int sum = 0;
+                        for (int k = 0; k < inner; k++) {
+                            sum += rowA[k] * dataBT[columnB + k];
+                        }
+                        matrixC[rowNumber][column] = sum;
+                    }
+                }
+                return null;
+            });
+        }
+
+        executor.invokeAll(tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of a matrix and a packed one.
+     * The transposition of {@code matrixB} is done once by {@link PackedMatrix#of} instead of every call
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply4(int[][] matrixA, PackedMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
+        final int[] dataBT = matrixB.getTransposed().getData();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        int processorsCount = parallelism(executor);
+        final boolean splitByRows = rows >= processorsCount || rows >= columns;
+        final int splitSize = splitByRows ? rows : columns;
+        int countPerProcessor = splitSize / processorsCount;
+        if (countPerProcessor == 0) {
+            processorsCount = splitSize;
+            countPerProcessor = 1;
+        }
+
+        for (int processor = 1; processor <= processorsCount; processor++) {
+            int first = countPerProcessor * (processor - 1);
+            int last = processor == processorsCount ? splitSize - 1 : countPerProcessor * processor - 1;
+            int firstRowNumber = splitByRows ? first : 0;
+            int lastRowNumber = splitByRows ? last : rows - 1;
+            int firstColumnNumber = splitByRows ? 0 : first;
+            int lastColumnNumber = splitByRows ? columns - 1 : last;
+
+            tasks.add(() -> {
+                for (int row = firstRowNumber; row <= lastRowNumber; row++) {
+                    int rowA[] = matrixA[row];
+                    for (int column = firstColumnNumber; column <= lastColumnNumber; column++) {
+                        final int columnB = column * inner;
+                        int sum = 0;
+                        for (int k = 0; k < inner; k++) {
+                            sum += rowA[k] * dataBT[columnB + k];
+                        }
+                        matrixC[row][column] = sum;
+                    }
+                }
+                return null;
+            });
+        }
+
+        executor.invokeAll(tasks);
+
+        return matrixC;
+    }
+
     /**
      * Multithreading multiplication (variant 5) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -220,20 +392,22 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply5(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
-        List<Callable<Void>> tasks = IntStream.range(0, matrixSize)
+        List<Callable<Void>> tasks = IntStream.range(0, columns)
                 .parallel()
                 .mapToObj(column -> (Callable<Void>) () -> {
-                    int[] columnB = new int[matrixSize];
-                    for (int k = 0; k < matrixSize; k++) {
+                    int[] columnB = new int[inner];
+                    for (int k = 0; k < inner; k++) {
                         columnB[k] = matrixB[k][column];
                     }
-                    for (int row = 0; row < matrixSize; row++) {
+                    for (int row = 0; row < rows; row++) {
                         int rowA[] = matrixA[row];
                         int sum = 0;
-                        for (int k = 0; k < matrixSize; k++) {
+                        for (int k = 0; k < inner; k++) {
                             sum += rowA[k] * columnB[k];
                         }
                         matrixC[row][column] = sum;
@@ -248,9 +422,10 @@ public class MatrixUtil {
     }
 
     /**
-     * Multithreading multiplication (variant 6) of two matrices
+     * Multithreading multiplication (variant 6) of two matrices.
+     * Every task computes a stripe of rows, stripe height depends on the shape so that tasks are not too small
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA  is first matrix
      * @param matrixB  is second matrix
@@ -258,21 +433,28 @@ public class MatrixUtil {
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply6(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
-        final CountDownLatch latch = new CountDownLatch(matrixSize);
+        final int rowsPerTask = rowsPerTask(inner, columns);
+        final CountDownLatch latch = new CountDownLatch((rows + rowsPerTask - 1) / rowsPerTask);
 
-        for (int row = 0; row < matrixSize; row++) {
-            int rowA[] = matrixA[row];
-            int rowC[] = matrixC[row];
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
 
             executor.submit(() -> {
-                for (int i = 0; i < matrixSize; i++) {
-                    int elementA = rowA[i];
-                    int rowB[] = matrixB[i];
-                    for (int column = 0; column < matrixSize; column++) {
-                        rowC[column] += elementA * rowB[column];
+                for (int rowNumber = firstRow; rowNumber < lastRow; rowNumber++) {
+                    int rowA[] = matrixA[rowNumber];
+                    int rowC[] = matrixC[rowNumber];
+                    for (int i = 0; i < inner; i++) {
+                        int elementA = rowA[i];
+                        int rowB[] = matrixB[i];
+                        for (int column = 0; column < columns; column++) {
+                            rowC[column] += elementA * rowB[column];
+                        }
                     }
                 }
                 latch.countDown();
@@ -287,35 +469,54 @@ public class MatrixUtil {
     /**
      * Multithreading multiplication (variant 7) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA is first matrix
      * @param matrixB is second matrix
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] concurrentMultiply7(int[][] matrixA, int[][] matrixB) throws ExecutionException, InterruptedException {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        return concurrentMultiply7(matrixA, matrixB, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Multithreading multiplication (variant 7) of two matrices on a pool of {@code threadsCount} threads
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA      is first matrix
+     * @param matrixB      is second matrix
+     * @param threadsCount is number of threads of the pool
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply7(int[][] matrixA, int[][] matrixB, int threadsCount) throws ExecutionException, InterruptedException {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
-        int threadsCount = Runtime.getRuntime().availableProcessors() - 1;
         ExecutorService executor = new ForkJoinPool(threadsCount);
 
-        executor.submit(
-                () -> IntStream.range(0, matrixSize)
-                        .parallel()
-                        .forEach(row -> {
-                            int rowA[] = matrixA[row];
-                            int rowC[] = matrixC[row];
-
-                            for (int i = 0; i < matrixSize; i++) {
-                                int elementA = rowA[i];
-                                int rowB[] = matrixB[i];
-                                for (int column = 0; column < matrixSize; column++) {
-                                    rowC[column] += elementA * rowB[column];
+        try {
+            executor.submit(
+                    () -> IntStream.range(0, rows)
+                            .parallel()
+                            .forEach(row -> {
+                                int rowA[] = matrixA[row];
+                                int rowC[] = matrixC[row];
+
+                                for (int i = 0; i < inner; i++) {
+                                    int elementA = rowA[i];
+                                    int rowB[] = matrixB[i];
+                                    for (int column = 0; column < columns; column++) {
+                                        rowC[column] += elementA * rowB[column];
+                                    }
                                 }
-                            }
-                        }))
-                .get();
+                            }))
+                    .get();
+        } finally {
+            executor.shutdown();
+        }
 
         return matrixC;
     }
@@ -323,26 +524,28 @@ public class MatrixUtil {
     /**
      * Single threaded multiplication (variant 1) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA is first matrix
      * @param matrixB is second matrix
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] singleThreadMultiply1(int[][] matrixA, int[][] matrixB) {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
 
-        int columnB[] = new int[matrixSize];
-        for (int column = 0; column < matrixSize; column++) {
-            for (int k = 0; k < matrixSize; k++) {
+        int columnB[] = new int[inner];
+        for (int column = 0; column < columns; column++) {
+            for (int k = 0; k < inner; k++) {
                 columnB[k] = matrixB[k][column];
             }
 
-            for (int row = 0; row < matrixSize; row++) {
+            for (int row = 0; row < rows; row++) {
                 int rowA[] = matrixA[row];
                 int sum = 0;
-                for (int k = 0; k < matrixSize; k++) {
+                for (int k = 0; k < inner; k++) {
                     sum += rowA[k] * columnB[k];
                 }
                 matrixC[row][column] = sum;
@@ -355,24 +558,41 @@ public class MatrixUtil {
     /**
      * Single threaded multiplication (variant 2) of two matrices
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA is first matrix
      * @param matrixB is second matrix
      * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
      */
     public static int[][] singleThreadMultiply2(int[][] matrixA, int[][] matrixB) {
-        final int matrixSize = matrixA.length;
-        final int[][] matrixC = new int[matrixSize][matrixSize];
+        return singleThreadMultiply2(matrixA, matrixB, new int[matrixA.length][checkShapes(matrixA, matrixB)]);
+    }
+
+    /**
+     * Single threaded multiplication (variant 2) of two matrices into {@code matrixC} without allocation
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param matrixC is destination matrix other than the operands, its values are overwritten
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] singleThreadMultiply2(int[][] matrixA, int[][] matrixB, int[][] matrixC) {
+        final int rows = matrixA.length;
+        final int inner = matrixB.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+        clear(matrixC);
 
-        for (int row = 0; row < matrixSize; row++) {
+        for (int row = 0; row < rows; row++) {
             int rowA[] = matrixA[row];
             int rowC[] = matrixC[row];
 
-            for (int i = 0; i < matrixSize; i++) {
+            for (int i = 0; i < inner; i++) {
                 int elementA = rowA[i];
                 int rowB[] = matrixB[i];
-                for (int column = 0; column < matrixSize; column++) {
+                for (int column = 0; column < columns; column++) {
                     rowC[column] += elementA * rowB[column];
                 }
             }
@@ -382,53 +602,1681 @@ public class MatrixUtil {
     }
 
     /**
-     * Creating a square matrix
+     * Single threaded blocked (tiled) multiplication of two matrices with the calibrated block size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
-     * @param size is size of new square matrix
-     * @return {@code matrix} is a new square matrix
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getBlockSize()
      */
-    public static int[][] create(int size) {
-        int[][] matrix = new int[size][size];
-        Random rn = new Random();
+    public static int[][] singleThreadBlockedMultiply(int[][] matrixA, int[][] matrixB) {
+        return singleThreadBlockedMultiply(matrixA, matrixB, getBlockSize());
+    }
 
-        for (int row = 0; row < size; row++) {
-            for (int column = 0; column < size; column++) {
-                matrix[row][column] = rn.nextInt(10);
+    /**
+     * Single threaded blocked (tiled) multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] singleThreadBlockedMultiply(int[][] matrixA, int[][] matrixB, int blockSize) {
+        return singleThreadBlockedMultiply(matrixA, matrixB, new int[matrixA.length][checkShapes(matrixA, matrixB)], blockSize);
+    }
+
+    /**
+     * Single threaded blocked (tiled) multiplication of two matrices into {@code matrixC} without allocation
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] singleThreadBlockedMultiply(int[][] matrixA, int[][] matrixB, int[][] matrixC, int blockSize) {
+        checkBlockSize(blockSize);
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+        clear(matrixC);
+
+        multiplyBlocks(matrixA, matrixB, matrixC, 0, rows, 0, columns, blockSize);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading blocked (tiled) multiplication of two matrices with the calibrated block size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getBlockSize()
+     */
+    public static int[][] concurrentBlockedMultiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        return concurrentBlockedMultiply(matrixA, matrixB, executor, getBlockSize());
+    }
+
+    /**
+     * Multithreading blocked (tiled) multiplication of two matrices.
+     * Every task owns a {@code blockSize} x {@code blockSize} tile of {@code matrixC},
+     * so thin, tall-skinny and wide shapes are all split into enough tasks
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentBlockedMultiply(int[][] matrixA, int[][] matrixB, ExecutorService executor, int blockSize) throws InterruptedException, ExecutionException {
+        checkBlockSize(blockSize);
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int rowBlock = 0; rowBlock < rows; rowBlock += blockSize) {
+            for (int columnBlock = 0; columnBlock < columns; columnBlock += blockSize) {
+                final int firstRow = rowBlock;
+                final int lastRow = Math.min(rowBlock + blockSize, rows);
+                final int firstColumn = columnBlock;
+                final int lastColumn = Math.min(columnBlock + blockSize, columns);
+                tasks.add(() -> {
+                    multiplyBlocks(matrixA, matrixB, matrixC, firstRow, lastRow, firstColumn, lastColumn, blockSize);
+                    return null;
+                });
             }
         }
-        return matrix;
+
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+
+        return matrixC;
     }
 
     /**
-     * Comparing matrices
+     * Single threaded multiplication of two matrices with {@code long} accumulation and {@code long} result
      * Assumption:
-     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
      * @param matrixA is first matrix
      * @param matrixB is second matrix
-     * @return {@code true} if all values are equal
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @throws ArithmeticException if a value of {@code matrixC} overflows {@code long}
      */
-    private static boolean compare(int[][] matrixA, int[][] matrixB) {
-        final int matrixSize = matrixA.length;
-        for (int row = 0; row < matrixSize; row++) {
-            for (int column = 0; column < matrixSize; column++) {
-                if (matrixA[row][column] != matrixB[row][column]) {
-                    return false;
+    public static long[][] singleThreadMultiplyLong(int[][] matrixA, int[][] matrixB) {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final long[][] matrixC = new long[rows][columns];
+        final boolean longSafe = isLongSafe(matrixA, matrixB);
+
+        for (int row = 0; row < rows; row++) {
+            accumulateRow(matrixA[row], matrixB, matrixC[row], longSafe);
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices with {@code long} accumulation and {@code long} result
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @throws ArithmeticException if a value of {@code matrixC} overflows {@code long}
+     */
+    public static long[][] concurrentMultiplyLong(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final long[][] matrixC = new long[rows][columns];
+        final boolean longSafe = isLongSafe(matrixA, matrixB);
+
+        final int rowsPerTask = rowsPerTask(matrixB.length, columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+            tasks.add(() -> {
+                for (int rowNumber = firstRow; rowNumber < lastRow; rowNumber++) {
+                    accumulateRow(matrixA[rowNumber], matrixB, matrixC[rowNumber], longSafe);
                 }
-            }
+                return null;
+            });
         }
-        return true;
+
+        invokeAllRethrowingArithmetic(executor, tasks);
+
+        return matrixC;
     }
 
     /**
-     * Comparing matrices
+     * Single threaded multiplication of two matrices with overflow check.
+     * Values are accumulated in {@code long} and the range of a whole stripe of rows is checked at once,
+     * so the check costs nothing per multiplication
      * Assumption:
-     * {@code matrices} are square matrices and their sizes are equal
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
      *
-     * @param matrices is array of matrices
-     * @return {@code true} if all matrices are equal
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @throws ArithmeticException if a value of {@code matrixC} overflows {@code int}
      */
-    public static boolean compare(int[][]... matrices) {
+    public static int[][] singleThreadMultiplyExact(int[][] matrixA, int[][] matrixB) {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
+        final boolean longSafe = isLongSafe(matrixA, matrixB);
+
+        final long[][] stripeC = new long[Math.min(rows, EXACT_STRIPE_ROWS)][columns];
+        for (int row = 0; row < rows; row += EXACT_STRIPE_ROWS) {
+            multiplyStripeExact(matrixA, matrixB, matrixC, stripeC, row, Math.min(row + EXACT_STRIPE_ROWS, rows), longSafe);
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices with overflow check
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @throws ArithmeticException if a value of {@code matrixC} overflows {@code int}
+     * @see #singleThreadMultiplyExact(int[][], int[][])
+     */
+    public static int[][] concurrentMultiplyExact(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        final int[][] matrixC = new int[rows][columns];
+        final boolean longSafe = isLongSafe(matrixA, matrixB);
+
+        List<Callable<Void>> tasks = new ArrayList<>(rows / EXACT_STRIPE_ROWS + 1);
+        for (int row = 0; row < rows; row += EXACT_STRIPE_ROWS) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + EXACT_STRIPE_ROWS, rows);
+            tasks.add(() -> {
+                multiplyStripeExact(matrixA, matrixB, matrixC, new long[lastRow - firstRow][columns], firstRow, lastRow, longSafe);
+                return null;
+            });
+        }
+
+        invokeAllRethrowingArithmetic(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * {@code rowC += rowA * matrixB}, every addition is checked unless {@code longSafe}
+     */
+    private static void accumulateRow(int[] rowA, int[][] matrixB, long[] rowC, boolean longSafe) {
+        final int columns = rowC.length;
+        for (int i = 0; i < rowA.length; i++) {
+            long elementA = rowA[i];
+            int rowB[] = matrixB[i];
+            if (longSafe) {
+                for (int column = 0; column < columns; column++) {
+                    rowC[column] += elementA * rowB[column];
+                }
+            } else {
+                for (int column = 0; column < columns; column++) {
+                    rowC[column] = Math.addExact(rowC[column], elementA * rowB[column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computing rows [{@code firstRow}, {@code lastRow}) in {@code stripeC} and copying them to {@code matrixC}
+     * after one range check of the whole stripe
+     */
+    private static void multiplyStripeExact(int[][] matrixA, int[][] matrixB, int[][] matrixC, long[][] stripeC,
+                                            int firstRow, int lastRow, boolean longSafe) {
+        long outOfRange = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+            long[] rowC = stripeC[row - firstRow];
+            Arrays.fill(rowC, 0);
+            accumulateRow(matrixA[row], matrixB, rowC, longSafe);
+            for (long value : rowC) {
+                // non-zero only if value doesn't fit into int
+                outOfRange |= (value - Integer.MIN_VALUE) >>> 32;
+            }
+        }
+        for (int row = firstRow; row < lastRow; row++) {
+            long[] rowC = stripeC[row - firstRow];
+            int[] resultRow = matrixC[row];
+            for (int column = 0; column < rowC.length; column++) {
+                if (outOfRange != 0 && (int) rowC[column] != rowC[column]) {
+                    throw new ArithmeticException("integer overflow at [" + row + ", " + column + "]: " + rowC[column]);
+                }
+                resultRow[column] = (int) rowC[column];
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if no sum of products of {@code matrixA} and {@code matrixB} elements can overflow {@code long}
+     */
+    private static boolean isLongSafe(int[][] matrixA, int[][] matrixB) {
+        try {
+            long bound = Math.multiplyExact(maxAbs(matrixA), maxAbs(matrixB));
+            Math.multiplyExact(bound, (long) matrixB.length);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    private static long maxAbs(int[][] matrix) {
+        long max = 0;
+        for (int[] row : matrix) {
+            for (int value : row) {
+                max = Math.max(max, Math.abs((long) value));
+            }
+        }
+        return max;
+    }
+
+    private static void invokeAllRethrowingArithmetic(ExecutorService executor, List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ArithmeticException) {
+                    throw (ArithmeticException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Fork/join multiplication of two matrices in the common {@code ForkJoinPool}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] forkJoinMultiply(int[][] matrixA, int[][] matrixB) {
+        return forkJoinMultiply(matrixA, matrixB, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Fork/join multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] forkJoinMultiply(int[][] matrixA, int[][] matrixB, ForkJoinPool pool) {
+        return forkJoinMultiply(IntMatrix.of(matrixA), IntMatrix.of(matrixB), pool).toArray();
+    }
+
+    /**
+     * Single threaded Strassen-Winograd multiplication of two matrices with the default crossover size
+     * Assumption:
+     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getStrassenCrossover()
+     */
+    public static int[][] strassenMultiply(int[][] matrixA, int[][] matrixB) {
+        return strassenMultiply(IntMatrix.of(matrixA), IntMatrix.of(matrixB), getStrassenCrossover()).toArray();
+    }
+
+    /**
+     * Strassen-Winograd multiplication of two matrices with the default crossover size.
+     * The seven sub-products of every level are computed concurrently
+     * Assumption:
+     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getStrassenCrossover()
+     */
+    public static int[][] concurrentStrassenMultiply(int[][] matrixA, int[][] matrixB, ForkJoinPool pool) {
+        return concurrentStrassenMultiply(IntMatrix.of(matrixA), IntMatrix.of(matrixB), pool, getStrassenCrossover()).toArray();
+    }
+
+    /**
+     * Single threaded fused multiply-accumulate {@code matrixC = alpha * matrixA * matrixB + beta * matrixC}
+     * computed in place without temporary matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param alpha   is factor of the product
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param beta    is factor of {@code matrixC}, 0 to overwrite it
+     * @param matrixC is accumulator matrix other than the operands
+     * @return {@code matrixC}
+     */
+    public static int[][] gemm(int alpha, int[][] matrixA, int[][] matrixB, int beta, int[][] matrixC) {
+        checkDestination(matrixC, matrixA, matrixB, matrixA.length, checkShapes(matrixA, matrixB));
+        gemmRows(alpha, matrixA, matrixB, beta, matrixC, 0, matrixA.length);
+        return matrixC;
+    }
+
+    /**
+     * Multithreading fused multiply-accumulate {@code matrixC = alpha * matrixA * matrixB + beta * matrixC}
+     * computed in place without temporary matrices, one task per stripe of rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param alpha    is factor of the product
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param beta     is factor of {@code matrixC}, 0 to overwrite it
+     * @param matrixC  is accumulator matrix other than the operands
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC}
+     */
+    public static int[][] concurrentGemm(int alpha, int[][] matrixA, int[][] matrixB, int beta, int[][] matrixC,
+                                         ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.length;
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+
+        final int rowsPerTask = rowsPerTask(matrixB.length, columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+            tasks.add(() -> {
+                gemmRows(alpha, matrixA, matrixB, beta, matrixC, firstRow, lastRow);
+                return null;
+            });
+        }
+
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Row-broadcast {@code rowC = beta * rowC + (alpha * rowA) * matrixB} of rows [{@code firstRow}, {@code lastRow}).
+     * int arithmetic wraps modulo 2^32, so scaling elements of {@code matrixA} gives exactly {@code alpha * (A * B)}
+     */
+    private static void gemmRows(int alpha, int[][] matrixA, int[][] matrixB, int beta, int[][] matrixC, int firstRow, int lastRow) {
+        final int inner = matrixB.length;
+        for (int row = firstRow; row < lastRow; row++) {
+            final int[] rowA = matrixA[row];
+            final int[] rowC = matrixC[row];
+            scale(rowC, 0, rowC.length, beta);
+            for (int k = 0; k < inner; k++) {
+                final int elementA = alpha * rowA[k];
+                final int[] rowB = matrixB[k];
+                for (int column = 0; column < rowC.length; column++) {
+                    rowC[column] += elementA * rowB[column];
+                }
+            }
+        }
+    }
+
+    private static void scale(int[] data, int from, int to, int factor) {
+        if (factor == 0) {
+            Arrays.fill(data, from, to, 0);
+        } else if (factor != 1) {
+            for (int i = from; i < to; i++) {
+                data[i] *= factor;
+            }
+        }
+    }
+
+    /**
+     * Tile size used by blocked multiplication when it is not given explicitly.
+     * It is taken from system property {@code matrix.blockSize} if present,
+     * otherwise it is chosen by a one-time calibration run on first use
+     *
+     * @return size of square tile
+     */
+    public static int getBlockSize() {
+        return BlockSizeHolder.BLOCK_SIZE;
+    }
+
+    /**
+     * Size below which Strassen-Winograd multiplication falls back to the blocked kernel.
+     * It is taken from system property {@code matrix.strassenCrossover}, default is {@value #DEFAULT_STRASSEN_CROSSOVER}
+     *
+     * @return crossover size
+     */
+    public static int getStrassenCrossover() {
+        return Integer.getInteger("matrix.strassenCrossover", DEFAULT_STRASSEN_CROSSOVER);
+    }
+
+    private static class BlockSizeHolder {
+        private static final int[] CANDIDATES = {32, 64, 128, 256};
+        private static final int CALIBRATION_MATRIX_SIZE = 512;
+        private static final int CALIBRATION_PASSES = 3;
+
+        private static final int BLOCK_SIZE = initBlockSize();
+
+        private static int initBlockSize() {
+            Integer blockSize = Integer.getInteger("matrix.blockSize");
+            if (blockSize != null) {
+                checkBlockSize(blockSize);
+                return blockSize;
+            }
+            return calibrate();
+        }
+
+        private static int calibrate() {
+            final int[][] matrixA = create(CALIBRATION_MATRIX_SIZE);
+            final int[][] matrixB = create(CALIBRATION_MATRIX_SIZE);
+
+            int bestBlockSize = CANDIDATES[0];
+            long bestDuration = Long.MAX_VALUE;
+            for (int blockSize : CANDIDATES) {
+                long duration = Long.MAX_VALUE;
+                for (int pass = 0; pass < CALIBRATION_PASSES; pass++) {
+                    long start = System.nanoTime();
+                    singleThreadBlockedMultiply(matrixA, matrixB, blockSize);
+                    duration = Math.min(duration, System.nanoTime() - start);
+                }
+                if (duration < bestDuration) {
+                    bestDuration = duration;
+                    bestBlockSize = blockSize;
+                }
+            }
+            return bestBlockSize;
+        }
+    }
+
+    /**
+     * Blocked i-k-j multiplication of the tile [{@code firstRow}, {@code lastRow}) x [{@code firstColumn}, {@code lastColumn})
+     * of {@code matrixC}
+     */
+    private static void multiplyBlocks(int[][] matrixA, int[][] matrixB, int[][] matrixC,
+                                       int firstRow, int lastRow, int firstColumn, int lastColumn, int blockSize) {
+        final int inner = matrixB.length;
+        for (int rowBlock = firstRow; rowBlock < lastRow; rowBlock += blockSize) {
+            final int rowEnd = Math.min(rowBlock + blockSize, lastRow);
+            for (int kBlock = 0; kBlock < inner; kBlock += blockSize) {
+                final int kEnd = Math.min(kBlock + blockSize, inner);
+                for (int columnBlock = firstColumn; columnBlock < lastColumn; columnBlock += blockSize) {
+                    final int columnEnd = Math.min(columnBlock + blockSize, lastColumn);
+                    for (int row = rowBlock; row < rowEnd; row++) {
+                        int rowA[] = matrixA[row];
+                        int rowC[] = matrixC[row];
+                        for (int k = kBlock; k < kEnd; k++) {
+                            int elementA = rowA[k];
+                            int rowB[] = matrixB[k];
+                            for (int column = columnBlock; column < columnEnd; column++) {
+                                rowC[column] += elementA * rowB[column];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checking that {@code matrixA} can be multiplied by {@code matrixB}
+     *
+     * @return number of columns of the product
+     */
+    private static int checkShapes(int[][] matrixA, int[][] matrixB) {
+        final int inner = matrixB.length;
+        if (matrixA.length > 0 && matrixA[0].length != inner) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + matrixA[0].length + " and " + inner + "xN");
+        }
+        return inner == 0 ? 0 : matrixB[0].length;
+    }
+
+    private static int checkShapes(int[][] matrixA, PackedMatrix matrixB) {
+        if (matrixA.length > 0 && matrixA[0].length != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + matrixA[0].length + " and " + matrixB);
+        }
+        return matrixB.getColumns();
+    }
+
+    /**
+     * Transposing {@code matrix} into {@code matrixT} which has enough rows and columns
+     *
+     * @return {@code matrixT}
+     */
+    private static int[][] transpose(int[][] matrix, int[][] matrixT) {
+        final int columns = matrix.length == 0 ? 0 : matrix[0].length;
+        for (int row = 0; row < matrix.length; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrixT[column][row] = matrix[row][column];
+            }
+        }
+        return matrixT;
+    }
+
+    /**
+     * Checking that {@code matrixC} is a {@code rows} x {@code columns} matrix sharing neither itself nor a row
+     * with the operands: it is cleared or written before the operands are read
+     */
+    private static void checkDestination(int[][] matrixC, int[][] matrixA, int[][] matrixB, int rows, int columns) {
+        if (matrixC.length != rows || (rows > 0 && matrixC[0].length != columns)) {
+            throw new IllegalArgumentException("Destination matrix must be " + rows + 'x' + columns);
+        }
+        if (matrixC == matrixA || matrixC == matrixB) {
+            throw new IllegalArgumentException("Destination matrix must not be an operand");
+        }
+        final Set<int[]> operandRows = Collections.newSetFromMap(new IdentityHashMap<>(matrixA.length + matrixB.length));
+        Collections.addAll(operandRows, matrixA);
+        Collections.addAll(operandRows, matrixB);
+        for (int row = 0; row < rows; row++) {
+            if (operandRows.contains(matrixC[row])) {
+                throw new IllegalArgumentException("Destination matrix must not share row " + row + " with an operand");
+            }
+        }
+    }
+
+    private static void clear(int[][] matrix) {
+        for (int[] row : matrix) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Number of rows computed by one task, so that a task does at least {@value #MIN_TASK_WORK} multiplications
+     */
+    private static int rowsPerTask(int inner, int columns) {
+        final long rowWork = Math.max(1L, (long) inner * columns);
+        return (int) Math.max(1L, MIN_TASK_WORK / rowWork);
+    }
+
+    /**
+     * Number of threads of {@code executor} if it is known, otherwise number of processors.
+     * Core threads of a {@code ThreadPoolExecutor} are counted: a cached pool has no core threads and
+     * an unbounded maximum, it would grow by a thread per task, so it is capped by number of processors
+     */
+    static int parallelism(ExecutorService executor) {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            final int threads = pool.getCorePoolSize() > 0 ? pool.getCorePoolSize() : processors;
+            return pool.getMaximumPoolSize() == Integer.MAX_VALUE ? Math.min(threads, processors)
+                    : Math.min(threads, pool.getMaximumPoolSize());
+        }
+        return processors;
+    }
+
+    private static void checkBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+    }
+
+    /**
+     * Multithreading multiplication (variant 1) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply1(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+
+        for (int column = 0; column < columns; column++) {
+            final int columnNumber = column;
+            final int columnB[] = copyColumn(matrixB, column);
+
+            completionService.submit(() -> {
+                for (int row = 0; row < rows; row++) {
+                    matrixC.set(row, columnNumber, dotRow(matrixA, row, columnB));
+                }
+                return null;
+            });
+        }
+
+        for (int task = 0; task < columns; task++) {
+            completionService.take();
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 2) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply2(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        class ColumnMultiplyResult {
+            private final int columnNumber;
+            private final int columnC[];
+
+            private ColumnMultiplyResult(int columnNumber, int columnC[]) {
+                this.columnNumber = columnNumber;
+                this.columnC = columnC;
+            }
+        }
+
+        final CompletionService<ColumnMultiplyResult> completionService = new ExecutorCompletionService<>(executor);
+
+        for (int column = 0; column < columns; column++) {
+            final int columnNumber = column;
+            final int columnB[] = copyColumn(matrixB, column);
+            completionService.submit(() -> {
+                final int columnC[] = new int[rows];
+                for (int row = 0; row < rows; row++) {
+                    columnC[row] = dotRow(matrixA, row, columnB);
+                }
+                return new ColumnMultiplyResult(columnNumber, columnC);
+            });
+        }
+
+        for (int task = 0; task < columns; task++) {
+            ColumnMultiplyResult res = completionService.take().get();
+            for (int row = 0; row < rows; row++) {
+                matrixC.set(row, res.columnNumber, res.columnC[row]);
+            }
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 3) of two contiguous matrices.
+     * Every task computes a stripe of rows, stripe height depends on the shape so that tasks are not too small
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply3(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        return concurrentMultiply3(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), executor, new MatrixWorkspace());
+    }
+
+    /**
+     * Multithreading multiplication (variant 3) of two contiguous matrices into {@code matrixC} without allocation of
+     * the result and of transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param workspace is reusable scratch space
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply3(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC,
+                                                ExecutorService executor, MatrixWorkspace workspace) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+        final IntMatrix matrixBT = transpose(matrixB, workspace.flatBuffer(columns, matrixB.getRows()));
+
+        return multiplyTransposed3(matrixA, matrixBT, matrixC, executor);
+    }
+
+    /**
+     * Multithreading multiplication (variant 3) of a contiguous matrix and a packed one
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply3(IntMatrix matrixA, PackedMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        return concurrentMultiply3(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), executor);
+    }
+
+    /**
+     * Multithreading multiplication (variant 3) of a contiguous matrix and a packed one into {@code matrixC}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param matrixC  is destination matrix other than the operands, its values are overwritten
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply3(IntMatrix matrixA, PackedMatrix matrixB, IntMatrix matrixC,
+                                                ExecutorService executor) throws InterruptedException {
+        checkDestination(matrixC, matrixA, matrixB.getTransposed(), matrixA.getRows(), checkShapes(matrixA, matrixB));
+        return multiplyTransposed3(matrixA, matrixB.getTransposed(), matrixC, executor);
+    }
+
+    private static IntMatrix multiplyTransposed3(IntMatrix matrixA, IntMatrix matrixBT, IntMatrix matrixC,
+                                                 ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = matrixBT.getRows();
+        final int rowsPerTask = rowsPerTask(matrixA.getColumns(), columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+            tasks.add(() -> {
+                multiplyRowsTransposed(matrixA, matrixBT, matrixC, firstRow, lastRow);
+                return null;
+            });
+        }
+
+        executor.invokeAll(tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of two contiguous matrices.
+     * Work is split between threads of {@code executor} by rows, or by columns when there are fewer rows than threads
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply4(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        return concurrentMultiply4(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), executor, new MatrixWorkspace());
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of two contiguous matrices into {@code matrixC} without allocation of
+     * the result and of transposed {@code matrixB}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param workspace is reusable scratch space
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply4(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC,
+                                                ExecutorService executor, MatrixWorkspace workspace) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+        final IntMatrix matrixBT = transpose(matrixB, workspace.flatBuffer(columns, matrixB.getRows()));
+
+        return multiplyTransposed4(matrixA, matrixBT, matrixC, executor);
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of a contiguous matrix and a packed one
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply4(IntMatrix matrixA, PackedMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        return concurrentMultiply4(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), executor);
+    }
+
+    /**
+     * Multithreading multiplication (variant 4) of a contiguous matrix and a packed one into {@code matrixC}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix packed by {@link PackedMatrix#of}
+     * @param matrixC  is destination matrix other than the operands, its values are overwritten
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply4(IntMatrix matrixA, PackedMatrix matrixB, IntMatrix matrixC,
+                                                ExecutorService executor) throws InterruptedException {
+        checkDestination(matrixC, matrixA, matrixB.getTransposed(), matrixA.getRows(), checkShapes(matrixA, matrixB));
+        return multiplyTransposed4(matrixA, matrixB.getTransposed(), matrixC, executor);
+    }
+
+    private static IntMatrix multiplyTransposed4(IntMatrix matrixA, IntMatrix matrixBT, IntMatrix matrixC,
+                                                 ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = matrixBT.getRows();
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        int processorsCount = parallelism(executor);
+        final boolean splitByRows = rows >= processorsCount || rows >= columns;
+        final int splitSize = splitByRows ? rows : columns;
+        int countPerProcessor = splitSize / processorsCount;
+        if (countPerProcessor == 0) {
+            processorsCount = splitSize;
+            countPerProcessor = 1;
+        }
+
+        for (int processor = 1; processor <= processorsCount; processor++) {
+            int first = countPerProcessor * (processor - 1);
+            int last = processor == processorsCount ? splitSize : countPerProcessor * processor;
+            IntMatrix partA = splitByRows ? matrixA.view(first, 0, last - first, matrixA.getColumns()) : matrixA;
+            IntMatrix partBT = splitByRows ? matrixBT : matrixBT.view(first, 0, last - first, matrixBT.getColumns());
+            IntMatrix partC = splitByRows ? matrixC.view(first, 0, last - first, columns) : matrixC.view(0, first, rows, last - first);
+
+            tasks.add(() -> {
+                multiplyRowsTransposed(partA, partBT, partC, 0, partA.getRows());
+                return null;
+            });
+        }
+
+        executor.invokeAll(tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 5) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply5(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        List<Callable<Void>> tasks = IntStream.range(0, columns)
+                .parallel()
+                .mapToObj(column -> (Callable<Void>) () -> {
+                    int[] columnB = copyColumn(matrixB, column);
+                    for (int row = 0; row < rows; row++) {
+                        matrixC.set(row, column, dotRow(matrixA, row, columnB));
+                    }
+                    return null;
+                })
+                .collect(toList());
+
+        executor.invokeAll(tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 6) of two contiguous matrices.
+     * Every task computes a stripe of rows, stripe height depends on the shape so that tasks are not too small
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply6(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        final int rowsPerTask = rowsPerTask(matrixA.getColumns(), columns);
+        final CountDownLatch latch = new CountDownLatch((rows + rowsPerTask - 1) / rowsPerTask);
+
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final int firstRow = row;
+            final int lastRow = Math.min(row + rowsPerTask, rows);
+            executor.submit(() -> {
+                multiplyRows(matrixA, matrixB, matrixC, firstRow, lastRow);
+                latch.countDown();
+            });
+        }
+
+        latch.await();
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication (variant 7) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply7(IntMatrix matrixA, IntMatrix matrixB) throws ExecutionException, InterruptedException {
+        return concurrentMultiply7(matrixA, matrixB, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Multithreading multiplication (variant 7) of two contiguous matrices on a pool of {@code threadsCount} threads
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA      is first matrix
+     * @param matrixB      is second matrix
+     * @param threadsCount is number of threads of the pool
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentMultiply7(IntMatrix matrixA, IntMatrix matrixB, int threadsCount) throws ExecutionException, InterruptedException {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        ExecutorService executor = new ForkJoinPool(threadsCount);
+
+        try {
+            executor.submit(
+                    () -> IntStream.range(0, rows)
+                            .parallel()
+                            .forEach(row -> multiplyRows(matrixA, matrixB, matrixC, row, row + 1)))
+                    .get();
+        } finally {
+            executor.shutdown();
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication (variant 1) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix singleThreadMultiply1(IntMatrix matrixA, IntMatrix matrixB) {
+        final int rows = matrixA.getRows();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        int columnB[] = new int[matrixB.getRows()];
+        for (int column = 0; column < columns; column++) {
+            copyColumn(matrixB, column, columnB);
+            for (int row = 0; row < rows; row++) {
+                matrixC.set(row, column, dotRow(matrixA, row, columnB));
+            }
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication (variant 2) of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix singleThreadMultiply2(IntMatrix matrixA, IntMatrix matrixB) {
+        return singleThreadMultiply2(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)));
+    }
+
+    /**
+     * Single threaded multiplication (variant 2) of two contiguous matrices into {@code matrixC} without allocation
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param matrixC is destination matrix other than the operands, its values are overwritten
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix singleThreadMultiply2(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC) {
+        final int rows = matrixA.getRows();
+        checkDestination(matrixC, matrixA, matrixB, rows, checkShapes(matrixA, matrixB));
+        matrixC.clear();
+
+        multiplyRows(matrixA, matrixB, matrixC, 0, rows);
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded blocked (tiled) multiplication of two contiguous matrices with the calibrated block size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getBlockSize()
+     */
+    public static IntMatrix singleThreadBlockedMultiply(IntMatrix matrixA, IntMatrix matrixB) {
+        return singleThreadBlockedMultiply(matrixA, matrixB, getBlockSize());
+    }
+
+    /**
+     * Single threaded blocked (tiled) multiplication of two contiguous matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix singleThreadBlockedMultiply(IntMatrix matrixA, IntMatrix matrixB, int blockSize) {
+        return singleThreadBlockedMultiply(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), blockSize);
+    }
+
+    /**
+     * Single threaded blocked (tiled) multiplication of two contiguous matrices into {@code matrixC} without allocation
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param matrixC   is destination matrix other than the operands, its values are overwritten
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix singleThreadBlockedMultiply(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int blockSize) {
+        checkBlockSize(blockSize);
+        checkDestination(matrixC, matrixA, matrixB, matrixA.getRows(), checkShapes(matrixA, matrixB));
+        matrixC.clear();
+
+        multiplyAdd(matrixA, matrixB, matrixC, blockSize);
+
+        return matrixC;
+    }
+
+    /**
+     * Multithreading blocked (tiled) multiplication of two contiguous matrices with the calibrated block size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getBlockSize()
+     */
+    public static IntMatrix concurrentBlockedMultiply(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        return concurrentBlockedMultiply(matrixA, matrixB, executor, getBlockSize());
+    }
+
+    /**
+     * Multithreading blocked (tiled) multiplication of two contiguous matrices.
+     * Every task owns a {@code blockSize} x {@code blockSize} tile of {@code matrixC},
+     * so thin, tall-skinny and wide shapes are all split into enough tasks
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param executor  is {@code ExecutorService} to submit tasks
+     * @param blockSize is size of square tile
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentBlockedMultiply(IntMatrix matrixA, IntMatrix matrixB, ExecutorService executor, int blockSize) throws InterruptedException, ExecutionException {
+        checkBlockSize(blockSize);
+        final int rows = matrixA.getRows();
+        final int inner = matrixA.getColumns();
+        final int columns = checkShapes(matrixA, matrixB);
+        final IntMatrix matrixC = new IntMatrix(rows, columns);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int rowBlock = 0; rowBlock < rows; rowBlock += blockSize) {
+            final int tileRows = Math.min(blockSize, rows - rowBlock);
+            final IntMatrix stripeA = matrixA.view(rowBlock, 0, tileRows, inner);
+            for (int columnBlock = 0; columnBlock < columns; columnBlock += blockSize) {
+                final int tileColumns = Math.min(blockSize, columns - columnBlock);
+                final IntMatrix stripeB = matrixB.view(0, columnBlock, inner, tileColumns);
+                final IntMatrix tileC = matrixC.view(rowBlock, columnBlock, tileRows, tileColumns);
+                tasks.add(() -> {
+                    multiplyAdd(stripeA, stripeB, tileC, blockSize);
+                    return null;
+                });
+            }
+        }
+
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+
+        return matrixC;
+    }
+
+    /**
+     * Fork/join multiplication of two contiguous matrices in the common {@code ForkJoinPool}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix forkJoinMultiply(IntMatrix matrixA, IntMatrix matrixB) {
+        return forkJoinMultiply(matrixA, matrixB, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Fork/join multiplication of two contiguous matrices with leaf tiles of the calibrated block size
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     * @see #getBlockSize()
+     */
+    public static IntMatrix forkJoinMultiply(IntMatrix matrixA, IntMatrix matrixB, ForkJoinPool pool) {
+        return forkJoinMultiply(matrixA, matrixB, pool, getBlockSize());
+    }
+
+    /**
+     * Fork/join multiplication of two contiguous matrices.
+     * {@code matrixC} is recursively split into quadrants down to {@code leafSize} x {@code leafSize} tiles,
+     * a small {@code matrixC} with a long inner dimension is split along the inner dimension instead
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param pool     is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @param leafSize is maximal size of a tile computed by one task
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix forkJoinMultiply(IntMatrix matrixA, IntMatrix matrixB, ForkJoinPool pool, int leafSize) {
+        return forkJoinMultiply(matrixA, matrixB, new IntMatrix(matrixA.getRows(), checkShapes(matrixA, matrixB)), pool, leafSize);
+    }
+
+    /**
+     * Fork/join multiplication of two contiguous matrices into {@code matrixC} without allocation of the result
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param matrixC  is destination matrix other than the operands, its values are overwritten
+     * @param pool     is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @param leafSize is maximal size of a tile computed by one task
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix forkJoinMultiply(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, ForkJoinPool pool, int leafSize) {
+        checkBlockSize(leafSize);
+        checkDestination(matrixC, matrixA, matrixB, matrixA.getRows(), checkShapes(matrixA, matrixB));
+        matrixC.clear();
+
+        pool.invoke(new MultiplyTask(matrixA, matrixB, matrixC, leafSize));
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded Strassen-Winograd multiplication of two contiguous matrices
+     * Assumption:
+     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param crossover is size of sub-matrices below which the blocked kernel is used
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix strassenMultiply(IntMatrix matrixA, IntMatrix matrixB, int crossover) {
+        checkSquare(matrixA, matrixB);
+        final int matrixSize = matrixA.getRows();
+        final IntMatrix matrixC = new IntMatrix(matrixSize, matrixSize);
+
+        new StrassenTask(matrixA, matrixB, matrixC, Math.max(1, crossover), getBlockSize(), false).compute();
+
+        return matrixC;
+    }
+
+    /**
+     * Strassen-Winograd multiplication of two contiguous matrices.
+     * The seven sub-products of every level are computed concurrently
+     * Assumption:
+     * {@code matrixA} and {@code matrixB} are square matrices and their sizes are equal
+     *
+     * @param matrixA   is first matrix
+     * @param matrixB   is second matrix
+     * @param pool      is {@code ForkJoinPool} to run tasks, it is not shut down
+     * @param crossover is size of sub-matrices below which the blocked kernel is used
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static IntMatrix concurrentStrassenMultiply(IntMatrix matrixA, IntMatrix matrixB, ForkJoinPool pool, int crossover) {
+        checkSquare(matrixA, matrixB);
+        final int matrixSize = matrixA.getRows();
+        final IntMatrix matrixC = new IntMatrix(matrixSize, matrixSize);
+
+        pool.invoke(new StrassenTask(matrixA, matrixB, matrixC, Math.max(1, crossover), getBlockSize(), true));
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded fused multiply-accumulate {@code matrixC = alpha * matrixA * matrixB + beta * matrixC}
+     * of contiguous matrices (or views) computed in place by the blocked kernel
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param alpha   is factor of the product
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param beta    is factor of {@code matrixC}, 0 to overwrite it
+     * @param matrixC is accumulator matrix other than the operands
+     * @return {@code matrixC}
+     */
+    public static IntMatrix gemm(int alpha, IntMatrix matrixA, IntMatrix matrixB, int beta, IntMatrix matrixC) {
+        checkDestination(matrixC, matrixA, matrixB, matrixA.getRows(), checkShapes(matrixA, matrixB));
+        scale(matrixC, beta);
+        multiplyAdd(matrixA, matrixB, matrixC, alpha, getBlockSize());
+        return matrixC;
+    }
+
+    /**
+     * Multithreading fused multiply-accumulate {@code matrixC = alpha * matrixA * matrixB + beta * matrixC}
+     * of contiguous matrices (or views) computed in place by the blocked kernel, one task per stripe of rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param alpha    is factor of the product
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param beta     is factor of {@code matrixC}, 0 to overwrite it
+     * @param matrixC  is accumulator matrix other than the operands
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC}
+     */
+    public static IntMatrix concurrentGemm(int alpha, IntMatrix matrixA, IntMatrix matrixB, int beta, IntMatrix matrixC,
+                                           ExecutorService executor) throws InterruptedException, ExecutionException {
+        final int rows = matrixA.getRows();
+        final int inner = matrixA.getColumns();
+        final int columns = checkShapes(matrixA, matrixB);
+        checkDestination(matrixC, matrixA, matrixB, rows, columns);
+        final int blockSize = getBlockSize();
+
+        final int rowsPerTask = rowsPerTask(inner, columns);
+        List<Callable<Void>> tasks = new ArrayList<>(rows / rowsPerTask + 1);
+        for (int row = 0; row < rows; row += rowsPerTask) {
+            final IntMatrix stripeA = matrixA.view(row, 0, Math.min(rowsPerTask, rows - row), inner);
+            final IntMatrix stripeC = matrixC.view(row, 0, stripeA.getRows(), columns);
+            tasks.add(() -> {
+                scale(stripeC, beta);
+                multiplyAdd(stripeA, matrixB, stripeC, alpha, blockSize);
+                return null;
+            });
+        }
+
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+
+        return matrixC;
+    }
+
+    private static void scale(IntMatrix matrix, int factor) {
+        for (int row = 0; row < matrix.getRows(); row++) {
+            final int rowOffset = matrix.index(row, 0);
+            scale(matrix.getData(), rowOffset, rowOffset + matrix.getColumns(), factor);
+        }
+    }
+
+    /**
+     * Checking that {@code matrixA} can be multiplied by {@code matrixB}
+     *
+     * @return number of columns of the product
+     */
+    private static int checkShapes(IntMatrix matrixA, PackedMatrix matrixB) {
+        if (matrixA.getColumns() != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matrixA + " and " + matrixB);
+        }
+        return matrixB.getColumns();
+    }
+
+    private static int checkShapes(IntMatrix matrixA, IntMatrix matrixB) {
+        if (matrixA.getColumns() != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matrixA + " and " + matrixB);
+        }
+        return matrixB.getColumns();
+    }
+
+    private static void checkSquare(IntMatrix matrixA, IntMatrix matrixB) {
+        final int matrixSize = matrixA.getRows();
+        if (matrixA.getColumns() != matrixSize || matrixB.getRows() != matrixSize || matrixB.getColumns() != matrixSize) {
+            throw new IllegalArgumentException("Square matrices of equal size expected: " + matrixA + ", " + matrixB);
+        }
+    }
+
+    /**
+     * Blocked i-k-j multiplication with accumulation: {@code matrixC += matrixA * matrixB}.
+     * Works on views of any shape: {@code matrixA} is n x k, {@code matrixB} is k x m, {@code matrixC} is n x m
+     */
+    static void multiplyAdd(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int blockSize) {
+        multiplyAdd(matrixA, matrixB, matrixC, 1, blockSize);
+    }
+
+    /**
+     * Blocked i-k-j multiplication with scaled accumulation: {@code matrixC += alpha * matrixA * matrixB}
+     */
+    static void multiplyAdd(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int alpha, int blockSize) {
+        final int rows = matrixA.getRows();
+        final int inner = matrixA.getColumns();
+        final int columns = matrixB.getColumns();
+        final int[] dataA = matrixA.getData();
+        final int[] dataB = matrixB.getData();
+        final int[] dataC = matrixC.getData();
+        final int strideA = matrixA.getStride();
+        final int strideB = matrixB.getStride();
+        final int strideC = matrixC.getStride();
+
+        for (int rowBlock = 0; rowBlock < rows; rowBlock += blockSize) {
+            final int rowEnd = Math.min(rowBlock + blockSize, rows);
+            for (int kBlock = 0; kBlock < inner; kBlock += blockSize) {
+                final int kEnd = Math.min(kBlock + blockSize, inner);
+                for (int columnBlock = 0; columnBlock < columns; columnBlock += blockSize) {
+                    final int columnEnd = Math.min(columnBlock + blockSize, columns);
+                    for (int row = rowBlock; row < rowEnd; row++) {
+                        final int rowA = matrixA.getOffset() + row * strideA;
+                        final int rowC = matrixC.getOffset() + row * strideC;
+                        for (int k = kBlock; k < kEnd; k++) {
+                            final int elementA = alpha * dataA[rowA + k];
+                            final int rowB = matrixB.getOffset() + k * strideB;
+                            for (int column = columnBlock; column < columnEnd; column++) {
+                                dataC[rowC + column] += elementA * dataB[rowB + column];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Row-broadcast (i-k-j) multiplication of rows [{@code firstRow}, {@code lastRow}) into {@code matrixC}
+     */
+    private static void multiplyRows(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int firstRow, int lastRow) {
+        final int inner = matrixA.getColumns();
+        final int columns = matrixB.getColumns();
+        final int[] dataA = matrixA.getData();
+        final int[] dataB = matrixB.getData();
+        final int[] dataC = matrixC.getData();
+
+        for (int row = firstRow; row < lastRow; row++) {
+            final int rowA = matrixA.index(row, 0);
+            final int rowC = matrixC.index(row, 0);
+            for (int k = 0; k < inner; k++) {
+                final int elementA = dataA[rowA + k];
+                final int rowB = matrixB.index(k, 0);
+                for (int column = 0; column < columns; column++) {
+                    dataC[rowC + column] += elementA * dataB[rowB + column];
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplication of rows [{@code firstRow}, {@code lastRow}) of {@code matrixA} by transposed {@code matrixBT}
+     */
+    private static void multiplyRowsTransposed(IntMatrix matrixA, IntMatrix matrixBT, IntMatrix matrixC, int firstRow, int lastRow) {
+        final int inner = matrixA.getColumns();
+        final int columns = matrixBT.getRows();
+        final int[] dataA = matrixA.getData();
+        final int[] dataBT = matrixBT.getData();
+        final int[] dataC = matrixC.getData();
+
+        for (int row = firstRow; row < lastRow; row++) {
+            final int rowA = matrixA.index(row, 0);
+            final int rowC = matrixC.index(row, 0);
+            for (int column = 0; column < columns; column++) {
+                final int columnB = matrixBT.index(column, 0);
+                int sum = 0;
+                for (int k = 0; k < inner; k++) {
+                    sum += dataA[rowA + k] * dataBT[columnB + k];
+                }
+                dataC[rowC + column] = sum;
+            }
+        }
+    }
+
+    private static int dotRow(IntMatrix matrixA, int row, int[] columnB) {
+        final int[] dataA = matrixA.getData();
+        final int rowA = matrixA.index(row, 0);
+        int sum = 0;
+        for (int k = 0; k < columnB.length; k++) {
+            sum += dataA[rowA + k] * columnB[k];
+        }
+        return sum;
+    }
+
+    private static int[] copyColumn(IntMatrix matrix, int column) {
+        return copyColumn(matrix, column, new int[matrix.getRows()]);
+    }
+
+    private static int[] copyColumn(IntMatrix matrix, int column, int[] columnB) {
+        final int[] data = matrix.getData();
+        for (int k = 0, index = matrix.index(0, column); k < columnB.length; k++, index += matrix.getStride()) {
+            columnB[k] = data[index];
+        }
+        return columnB;
+    }
+
+    /**
+     * Transposing a matrix into a new contiguous one
+     *
+     * @param matrix is matrix to transpose
+     * @return {@code matrixT} is a transposed {@code matrix}
+     */
+    public static IntMatrix transpose(IntMatrix matrix) {
+        return transpose(matrix, new IntMatrix(matrix.getColumns(), matrix.getRows()));
+    }
+
+    /**
+     * Transposing a matrix into {@code matrixT}
+     *
+     * @param matrix  is matrix to transpose
+     * @param matrixT is destination matrix of transposed size other than {@code matrix}
+     * @return {@code matrixT} is a transposed {@code matrix}
+     */
+    public static IntMatrix transpose(IntMatrix matrix, IntMatrix matrixT) {
+        checkDestination(matrixT, matrix, null, matrix.getColumns(), matrix.getRows());
+        final int[] data = matrix.getData();
+        final int[] dataT = matrixT.getData();
+        for (int row = 0; row < matrix.getRows(); row++) {
+            final int rowOffset = matrix.index(row, 0);
+            for (int column = 0, indexT = matrixT.index(0, row); column < matrix.getColumns(); column++, indexT += matrixT.getStride()) {
+                dataT[indexT] = data[rowOffset + column];
+            }
+        }
+        return matrixT;
+    }
+
+    /**
+     * Checking that {@code matrixC} is a {@code rows} x {@code columns} matrix sharing no element with the operands,
+     * {@code null} operands are skipped
+     */
+    private static void checkDestination(IntMatrix matrixC, IntMatrix matrixA, IntMatrix matrixB, int rows, int columns) {
+        if (matrixC.getRows() != rows || matrixC.getColumns() != columns) {
+            throw new IllegalArgumentException("Destination matrix must be " + rows + 'x' + columns + ": " + matrixC);
+        }
+        if ((matrixA != null && matrixC.overlaps(matrixA)) || (matrixB != null && matrixC.overlaps(matrixB))) {
+            throw new IllegalArgumentException("Destination matrix must not share data with an operand: " + matrixC);
+        }
+    }
+
+    /**
+     * Creating a square matrix
+     *
+     * @param size is size of new square matrix
+     * @return {@code matrix} is a new square matrix
+     */
+    public static int[][] create(int size) {
+        return create(size, size);
+    }
+
+    /**
+     * Creating a rectangular matrix
+     *
+     * @param rows    is number of rows of new matrix
+     * @param columns is number of columns of new matrix
+     * @return {@code matrix} is a new matrix
+     */
+    public static int[][] create(int rows, int columns) {
+        int[][] matrix = new int[rows][columns];
+        Random rn = new Random();
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = rn.nextInt(10);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Comparing matrices
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code true} if sizes and all values are equal
+     */
+    private static boolean compare(int[][] matrixA, int[][] matrixB) {
+        final int rows = matrixA.length;
+        if (matrixB.length != rows) {
+            return false;
+        }
+        for (int row = 0; row < rows; row++) {
+            final int columns = matrixA[row].length;
+            if (matrixB[row].length != columns) {
+                return false;
+            }
+            for (int column = 0; column < columns; column++) {
+                if (matrixA[row][column] != matrixB[row][column]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Comparing matrices
+     *
+     * @param matrices is array of matrices
+     * @return {@code true} if all matrices are equal
+     */
+    public static boolean compare(int[][]... matrices) {
+        final int size = matrices.length;
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (!compare(matrices[i], matrices[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creating a square contiguous matrix
+     *
+     * @param size is size of new square matrix
+     * @return {@code matrix} is a new square matrix
+     */
+    public static IntMatrix createIntMatrix(int size) {
+        return createIntMatrix(size, size);
+    }
+
+    /**
+     * Creating a rectangular contiguous matrix
+     *
+     * @param rows    is number of rows of new matrix
+     * @param columns is number of columns of new matrix
+     * @return {@code matrix} is a new matrix
+     */
+    public static IntMatrix createIntMatrix(int rows, int columns) {
+        IntMatrix matrix = new IntMatrix(rows, columns);
+        Random rn = new Random();
+
+        final int[] data = matrix.getData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = rn.nextInt(10);
+        }
+        return matrix;
+    }
+
+    /**
+     * Comparing contiguous matrices
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code true} if sizes and all values are equal
+     */
+    private static boolean compare(IntMatrix matrixA, IntMatrix matrixB) {
+        if (matrixA.getRows() != matrixB.getRows() || matrixA.getColumns() != matrixB.getColumns()) {
+            return false;
+        }
+        final int[] dataA = matrixA.getData();
+        final int[] dataB = matrixB.getData();
+        for (int row = 0; row < matrixA.getRows(); row++) {
+            final int rowA = matrixA.index(row, 0);
+            final int rowB = matrixB.index(row, 0);
+            for (int column = 0; column < matrixA.getColumns(); column++) {
+                if (dataA[rowA + column] != dataB[rowB + column]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Comparing contiguous matrices
+     *
+     * @param matrices is array of matrices
+     * @return {@code true} if all matrices are equal
+     */
+    public static boolean compare(IntMatrix... matrices) {
         final int size = matrices.length;
         for (int i = 0; i < size; i++) {
             for (int j = i + 1; j < size; j++) {
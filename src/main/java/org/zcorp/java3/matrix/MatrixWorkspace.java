@@ -0,0 +1,33 @@
+package org.zcorp.java3.matrix;
+
+/**
+ * Reusable scratch space of {@link MatrixUtil} kernels (e.g. transposed {@code matrixB}).
+ * Buffers only grow, so repeated multiplications of the same shapes don't allocate.
+ * Workspace is not thread-safe: use one per calling thread
+ */
+public class MatrixWorkspace {
+    private int[][] jaggedBuffer = new int[0][0];
+    private int[] flatBuffer = new int[0];
+
+    /**
+     * @return buffer with at least {@code rows} rows of at least {@code columns} elements
+     */
+    int[][] jaggedBuffer(int rows, int columns) {
+        final int bufferColumns = jaggedBuffer.length == 0 ? 0 : jaggedBuffer[0].length;
+        if (jaggedBuffer.length < rows || bufferColumns < columns) {
+            jaggedBuffer = new int[Math.max(rows, jaggedBuffer.length)][Math.max(columns, bufferColumns)];
+        }
+        return jaggedBuffer;
+    }
+
+    /**
+     * @return contiguous {@code rows} x {@code columns} matrix backed by the reusable buffer
+     */
+    IntMatrix flatBuffer(int rows, int columns) {
+        final int length = Math.multiplyExact(rows, columns);
+        if (flatBuffer.length < length) {
+            flatBuffer = new int[length];
+        }
+        return IntMatrix.wrap(flatBuffer, rows, columns);
+    }
+}
@@ -0,0 +1,96 @@
+package org.zcorp.java3.matrix;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Divide-and-conquer multiplication {@code matrixC += matrixA * matrixB}.
+ * The output is split into quadrants until a tile fits into {@code leafSize} x {@code leafSize},
+ * the leaf tile is computed by the blocked kernel over the whole inner dimension.
+ * Quadrants are independent, so idle workers steal them from busy ones.
+ * A leaf tile with a long inner dimension (e.g. 64x100000 * 100000x64) is split along the inner dimension,
+ * the second half is accumulated into a temporary tile and added afterwards
+ */
+class MultiplyTask extends RecursiveAction {
+    private static final int INNER_SPLIT_FACTOR = 8;
+
+    private final IntMatrix matrixA;
+    private final IntMatrix matrixB;
+    private final IntMatrix matrixC;
+    private final int leafSize;
+
+    MultiplyTask(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int leafSize) {
+        this.matrixA = matrixA;
+        this.matrixB = matrixB;
+        this.matrixC = matrixC;
+        this.leafSize = leafSize;
+    }
+
+    @Override
+    protected void compute() {
+        final int rows = matrixC.getRows();
+        final int columns = matrixC.getColumns();
+        final boolean splitRows = rows > leafSize;
+        final boolean splitColumns = columns > leafSize;
+
+        if (!splitRows && !splitColumns) {
+            final int inner = matrixA.getColumns();
+            if (inner > leafSize * INNER_SPLIT_FACTOR) {
+                computeInnerSplit(inner / 2);
+            } else {
+                MatrixUtil.multiplyAdd(matrixA, matrixB, matrixC, leafSize);
+            }
+        } else if (splitRows && splitColumns) {
+            final int halfRows = rows / 2;
+            final int halfColumns = columns / 2;
+            invokeAll(
+                    task(0, halfRows, 0, halfColumns),
+                    task(0, halfRows, halfColumns, columns - halfColumns),
+                    task(halfRows, rows - halfRows, 0, halfColumns),
+                    task(halfRows, rows - halfRows, halfColumns, columns - halfColumns));
+        } else if (splitRows) {
+            final int halfRows = rows / 2;
+            invokeAll(
+                    task(0, halfRows, 0, columns),
+                    task(halfRows, rows - halfRows, 0, columns));
+        } else {
+            final int halfColumns = columns / 2;
+            invokeAll(
+                    task(0, rows, 0, halfColumns),
+                    task(0, rows, halfColumns, columns - halfColumns));
+        }
+    }
+
+    private void computeInnerSplit(int halfInner) {
+        final int rows = matrixC.getRows();
+        final int columns = matrixC.getColumns();
+        final int inner = matrixA.getColumns();
+        final IntMatrix partialC = new IntMatrix(rows, columns);
+        invokeAll(
+                new MultiplyTask(
+                        matrixA.view(0, 0, rows, halfInner),
+                        matrixB.view(0, 0, halfInner, columns),
+                        matrixC, leafSize),
+                new MultiplyTask(
+                        matrixA.view(0, halfInner, rows, inner - halfInner),
+                        matrixB.view(halfInner, 0, inner - halfInner, columns),
+                        partialC, leafSize));
+
+        final int[] data = matrixC.getData();
+        final int[] partialData = partialC.getData();
+        for (int row = 0; row < rows; row++) {
+            final int rowC = matrixC.index(row, 0);
+            final int rowPartial = partialC.index(row, 0);
+            for (int column = 0; column < columns; column++) {
+                data[rowC + column] += partialData[rowPartial + column];
+            }
+        }
+    }
+
+    private MultiplyTask task(int firstRow, int rows, int firstColumn, int columns) {
+        return new MultiplyTask(
+                matrixA.view(firstRow, 0, rows, matrixA.getColumns()),
+                matrixB.view(0, firstColumn, matrixB.getRows(), columns),
+                matrixC.view(firstRow, firstColumn, rows, columns),
+                leafSize);
+    }
+}
@@ -0,0 +1,78 @@
+package org.zcorp.java3.matrix;
+
+/**
+ * Right operand of a multiplication prepared once for many multiplications:
+ * {@code matrixB} transposed into one contiguous array, so every column of {@code matrixB} is a contiguous run
+ * used by the dot product kernels of {@link MatrixUtil#concurrentMultiply3} and {@link MatrixUtil#concurrentMultiply4}.
+ * The packed copy doesn't follow later changes of the source matrix
+ */
+public final class PackedMatrix {
+    private final IntMatrix transposed;
+
+    private PackedMatrix(IntMatrix transposed) {
+        this.transposed = transposed;
+    }
+
+    /**
+     * Packing a jagged right operand
+     *
+     * @param matrixB is matrix with rows of equal length
+     * @return {@code packed} copy of {@code matrixB}
+     */
+    public static PackedMatrix of(int[][] matrixB) {
+        final int rows = matrixB.length;
+        final int columns = rows == 0 ? 0 : matrixB[0].length;
+        final IntMatrix transposed = new IntMatrix(columns, rows);
+        final int[] data = transposed.getData();
+        for (int row = 0; row < rows; row++) {
+            final int[] rowB = matrixB[row];
+            if (rowB.length != columns) {
+                throw new IllegalArgumentException("Row " + row + " has length " + rowB.length + ", expected " + columns);
+            }
+            for (int column = 0, index = row; column < columns; column++, index += rows) {
+                data[index] = rowB[column];
+            }
+        }
+        return new PackedMatrix(transposed);
+    }
+
+    /**
+     * Packing a contiguous (or view) right operand
+     *
+     * @param matrixB is matrix to pack
+     * @return {@code packed} copy of {@code matrixB}
+     */
+    public static PackedMatrix of(IntMatrix matrixB) {
+        return new PackedMatrix(MatrixUtil.transpose(matrixB));
+    }
+
+    /**
+     * @return number of rows of the source matrix
+     */
+    public int getRows() {
+        return transposed.getColumns();
+    }
+
+    /**
+     * @return number of columns of the source matrix
+     */
+    public int getColumns() {
+        return transposed.getRows();
+    }
+
+    /**
+     * @return approximate heap size of the packed data
+     */
+    public long getBytes() {
+        return (long) transposed.getData().length * Integer.BYTES;
+    }
+
+    IntMatrix getTransposed() {
+        return transposed;
+    }
+
+    @Override
+    public String toString() {
+        return "PackedMatrix " + getRows() + 'x' + getColumns();
+    }
+}
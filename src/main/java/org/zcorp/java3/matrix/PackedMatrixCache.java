@@ -0,0 +1,173 @@
+package org.zcorp.java3.matrix;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of packed right operands.
+ * Matrices are keyed by identity ({@code int[][]} and {@link IntMatrix} don't override {@code equals}),
+ * so a cached matrix must not be modified, or it must be {@link #invalidate invalidated} after modification.
+ * Matrices are referenced weakly: the cache doesn't keep a dropped operand alive, its packed copy is removed
+ * after the operand is collected, so {@code maxBytes} bounds all heap retained by the cache.
+ * The least recently used operands are evicted when the packed data exceeds {@code maxBytes};
+ * an operand bigger than {@code maxBytes} is packed but not cached.
+ * Packing runs outside the lock, so concurrent misses of the same matrix may pack it twice, the first one is kept
+ */
+public class PackedMatrixCache {
+    private final long maxBytes;
+    private final LinkedHashMap<IdentityKey, PackedMatrix> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public PackedMatrixCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Negative cache size: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param matrixB is right operand
+     * @return {@code packed} copy of {@code matrixB}, cached or packed now
+     */
+    public PackedMatrix get(int[][] matrixB) {
+        final PackedMatrix packed = lookup(matrixB);
+        return packed != null ? packed : put(matrixB, PackedMatrix.of(matrixB));
+    }
+
+    /**
+     * @param matrixB is right operand
+     * @return {@code packed} copy of {@code matrixB}, cached or packed now
+     */
+    public PackedMatrix get(IntMatrix matrixB) {
+        final PackedMatrix packed = lookup(matrixB);
+        return packed != null ? packed : put(matrixB, PackedMatrix.of(matrixB));
+    }
+
+    /**
+     * Removing the packed copy of a matrix, e.g. after the matrix was modified
+     *
+     * @param matrixB is {@code int[][]} or {@link IntMatrix} right operand
+     */
+    public synchronized void invalidate(Object matrixB) {
+        purge();
+        remove(new IdentityKey(matrixB, null));
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        bytes = 0;
+        while (collected.poll() != null) {
+            // keys of removed entries
+        }
+    }
+
+    public synchronized int size() {
+        purge();
+        return cache.size();
+    }
+
+    public synchronized long getBytes() {
+        purge();
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        purge();
+        return "PackedMatrixCache: " + cache.size() + " matrices, " + bytes + '/' + maxBytes + " bytes, "
+                + hits + " hits, " + misses + " misses";
+    }
+
+    private synchronized PackedMatrix lookup(Object matrixB) {
+        purge();
+        final PackedMatrix packed = cache.get(new IdentityKey(matrixB, null));
+        if (packed != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return packed;
+    }
+
+    private synchronized PackedMatrix put(Object matrixB, PackedMatrix packed) {
+        purge();
+        final PackedMatrix existing = cache.get(new IdentityKey(matrixB, null));
+        if (existing != null) {
+            return existing;
+        }
+        if (packed.getBytes() > maxBytes) {
+            return packed;
+        }
+        cache.put(new IdentityKey(matrixB, collected), packed);
+        bytes += packed.getBytes();
+        for (Iterator<Map.Entry<IdentityKey, PackedMatrix>> iterator = cache.entrySet().iterator(); bytes > maxBytes; ) {
+            bytes -= iterator.next().getValue().getBytes();
+            iterator.remove();
+        }
+        return packed;
+    }
+
+    /**
+     * Removing entries of collected operands
+     */
+    private void purge() {
+        for (Reference<?> key = collected.poll(); key != null; key = collected.poll()) {
+            remove(key);
+        }
+    }
+
+    private void remove(Object key) {
+        final PackedMatrix packed = cache.remove(key);
+        if (packed != null) {
+            bytes -= packed.getBytes();
+        }
+    }
+
+    /**
+     * Weak reference to an operand, equal to another one referencing the same operand
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object matrix, ReferenceQueue<Object> queue) {
+            super(matrix, queue);
+            hash = System.identityHashCode(matrix);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+            final Object matrix = get();
+            return matrix != null && matrix == ((IdentityKey) other).get();
+        }
+    }
+}
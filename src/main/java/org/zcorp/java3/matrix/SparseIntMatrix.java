@@ -0,0 +1,250 @@
+package org.zcorp.java3.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Sparse int matrix in compressed sparse row (CSR) or compressed sparse column (CSC) format.
+ * Non-zero elements of major line {@code i} (row for CSR, column for CSC) are
+ * {@code values[pointers[i] .. pointers[i + 1])} at minor positions {@code indices[...]}, sorted ascending.
+ * Only primitive arrays are used, so a matrix takes {@code 8 * nonZeros + 4 * (majorSize + 1)} bytes
+ */
+public final class SparseIntMatrix {
+
+    public enum Format {
+        CSR, CSC
+    }
+
+    private final Format format;
+    private final int rows;
+    private final int columns;
+    private final int[] pointers;
+    private final int[] indices;
+    private final int[] values;
+
+    SparseIntMatrix(Format format, int rows, int columns, int[] pointers, int[] indices, int[] values) {
+        if (pointers.length != (format == Format.CSR ? rows : columns) + 1) {
+            throw new IllegalArgumentException("Pointers array of length " + pointers.length + " doesn't match " + rows + 'x' + columns + ' ' + format);
+        }
+        this.format = format;
+        this.rows = rows;
+        this.columns = columns;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Compressing a dense matrix into CSR
+     *
+     * @param matrix is jagged matrix with rows of equal length
+     * @return {@code sparse} copy of {@code matrix}
+     */
+    public static SparseIntMatrix of(int[][] matrix) {
+        return of(matrix, Format.CSR);
+    }
+
+    /**
+     * Compressing a dense matrix
+     *
+     * @param matrix is jagged matrix with rows of equal length
+     * @param format is format of the result
+     * @return {@code sparse} copy of {@code matrix}
+     */
+    public static SparseIntMatrix of(int[][] matrix, Format format) {
+        final int rows = matrix.length;
+        final int columns = rows == 0 ? 0 : matrix[0].length;
+        final int majorSize = format == Format.CSR ? rows : columns;
+        final int[] pointers = new int[majorSize + 1];
+        for (int row = 0; row < rows; row++) {
+            final int[] rowM = matrix[row];
+            if (rowM.length != columns) {
+                throw new IllegalArgumentException("Row " + row + " has length " + rowM.length + ", expected " + columns);
+            }
+            for (int column = 0; column < columns; column++) {
+                if (rowM[column] != 0) {
+                    pointers[(format == Format.CSR ? row : column) + 1]++;
+                }
+            }
+        }
+        for (int major = 0; major < majorSize; major++) {
+            pointers[major + 1] += pointers[major];
+        }
+
+        final int[] indices = new int[pointers[majorSize]];
+        final int[] values = new int[pointers[majorSize]];
+        final int[] next = Arrays.copyOf(pointers, majorSize);
+        for (int row = 0; row < rows; row++) {
+            final int[] rowM = matrix[row];
+            for (int column = 0; column < columns; column++) {
+                if (rowM[column] != 0) {
+                    final int position = format == Format.CSR ? next[row]++ : next[column]++;
+                    indices[position] = format == Format.CSR ? column : row;
+                    values[position] = rowM[column];
+                }
+            }
+        }
+        return new SparseIntMatrix(format, rows, columns, pointers, indices, values);
+    }
+
+    /**
+     * Compressing a contiguous matrix (or view) into CSR
+     *
+     * @param matrix is matrix to compress
+     * @return {@code sparse} copy of {@code matrix}
+     */
+    public static SparseIntMatrix of(IntMatrix matrix) {
+        final int rows = matrix.getRows();
+        final int columns = matrix.getColumns();
+        final int[] data = matrix.getData();
+        final int[] pointers = new int[rows + 1];
+        for (int row = 0; row < rows; row++) {
+            int count = 0;
+            for (int index = matrix.index(row, 0), end = index + columns; index < end; index++) {
+                if (data[index] != 0) {
+                    count++;
+                }
+            }
+            pointers[row + 1] = pointers[row] + count;
+        }
+
+        final int[] indices = new int[pointers[rows]];
+        final int[] values = new int[pointers[rows]];
+        for (int row = 0, position = 0; row < rows; row++) {
+            final int rowOffset = matrix.index(row, 0);
+            for (int column = 0; column < columns; column++) {
+                if (data[rowOffset + column] != 0) {
+                    indices[position] = column;
+                    values[position++] = data[rowOffset + column];
+                }
+            }
+        }
+        return new SparseIntMatrix(Format.CSR, rows, columns, pointers, indices, values);
+    }
+
+    /**
+     * Fraction of non-zero elements of a dense matrix
+     *
+     * @param matrix is jagged matrix
+     * @return {@code density} from 0 to 1
+     */
+    public static double density(int[][] matrix) {
+        long nonZeros = 0;
+        long size = 0;
+        for (int[] row : matrix) {
+            for (int element : row) {
+                if (element != 0) {
+                    nonZeros++;
+                }
+            }
+            size += row.length;
+        }
+        return size == 0 ? 0 : (double) nonZeros / size;
+    }
+
+    /**
+     * @return {@code this} if it is CSR, otherwise a CSR copy
+     */
+    public SparseIntMatrix toCsr() {
+        return format == Format.CSR ? this : convert(Format.CSR);
+    }
+
+    /**
+     * @return {@code this} if it is CSC, otherwise a CSC copy
+     */
+    public SparseIntMatrix toCsc() {
+        return format == Format.CSC ? this : convert(Format.CSC);
+    }
+
+    /**
+     * Decompressing into a dense matrix
+     *
+     * @return {@code matrix} as {@code int[][]}
+     */
+    public int[][] toArray() {
+        final int[][] matrix = new int[rows][columns];
+        for (int major = 0; major < pointers.length - 1; major++) {
+            for (int position = pointers[major]; position < pointers[major + 1]; position++) {
+                if (format == Format.CSR) {
+                    matrix[major][indices[position]] = values[position];
+                } else {
+                    matrix[indices[position]][major] = values[position];
+                }
+            }
+        }
+        return matrix;
+    }
+
+    public int get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Element [" + row + ", " + column + "] is out of matrix " + rows + 'x' + columns);
+        }
+        final int major = format == Format.CSR ? row : column;
+        final int position = Arrays.binarySearch(indices, pointers[major], pointers[major + 1], format == Format.CSR ? column : row);
+        return position < 0 ? 0 : values[position];
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getNonZeros() {
+        return pointers[pointers.length - 1];
+    }
+
+    public double getDensity() {
+        final long size = (long) rows * columns;
+        return size == 0 ? 0 : (double) getNonZeros() / size;
+    }
+
+    int[] getPointers() {
+        return pointers;
+    }
+
+    int[] getIndices() {
+        return indices;
+    }
+
+    int[] getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseIntMatrix " + rows + 'x' + columns + ' ' + format + ", " + getNonZeros() + " non-zeros";
+    }
+
+    /**
+     * Counting sort of the elements by minor index, which becomes the major one
+     */
+    private SparseIntMatrix convert(Format target) {
+        final int majorSize = pointers.length - 1;
+        final int minorSize = format == Format.CSR ? columns : rows;
+        final int[] targetPointers = new int[minorSize + 1];
+        for (int position = 0; position < getNonZeros(); position++) {
+            targetPointers[indices[position] + 1]++;
+        }
+        for (int minor = 0; minor < minorSize; minor++) {
+            targetPointers[minor + 1] += targetPointers[minor];
+        }
+
+        final int[] targetIndices = new int[getNonZeros()];
+        final int[] targetValues = new int[getNonZeros()];
+        final int[] next = Arrays.copyOf(targetPointers, minorSize);
+        for (int major = 0; major < majorSize; major++) {
+            for (int position = pointers[major]; position < pointers[major + 1]; position++) {
+                final int targetPosition = next[indices[position]]++;
+                targetIndices[targetPosition] = major;
+                targetValues[targetPosition] = values[position];
+            }
+        }
+        return new SparseIntMatrix(target, rows, columns, targetPointers, targetIndices, targetValues);
+    }
+}
@@ -0,0 +1,401 @@
+package org.zcorp.java3.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Multiplications with {@link SparseIntMatrix} operands.
+ * Concurrent kernels split rows of the result into stripes of about equal work (by number of multiply-adds,
+ * not by number of rows, since non-zeros are rarely spread evenly) and submit one task per stripe,
+ * as {@link MatrixUtil#concurrentMultiply3} does. Any {@code ExecutorService} including {@code ForkJoinPool} may be used
+ */
+public class SparseMatrixUtil {
+    private static final long MIN_TASK_WORK = 1 << 18;
+
+    /**
+     * Density of the left operand below which sparse kernels are faster than dense ones,
+     * can be overridden by system property {@code matrix.sparseThreshold}
+     */
+    public static final double DEFAULT_SPARSE_THRESHOLD = 0.1;
+
+    /**
+     * Multithreading multiplication of two dense matrices which picks the kernel by measured density:
+     * sparse x sparse if both operands are sparse, sparse x dense if only {@code matrixA} is,
+     * dense x sparse if only {@code matrixB} is, {@link MatrixUtil#concurrentMultiply3} otherwise
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply(int[][] matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final double threshold = getSparseThreshold();
+        final boolean sparseA = SparseIntMatrix.density(matrixA) < threshold;
+        final boolean sparseB = SparseIntMatrix.density(matrixB) < threshold;
+        if (sparseA && sparseB) {
+            return concurrentMultiply(SparseIntMatrix.of(matrixA), SparseIntMatrix.of(matrixB), executor).toArray();
+        } else if (sparseA) {
+            return concurrentMultiply(SparseIntMatrix.of(matrixA), matrixB, executor);
+        } else if (sparseB) {
+            return concurrentMultiply(matrixA, SparseIntMatrix.of(matrixB), executor);
+        }
+        return MatrixUtil.concurrentMultiply3(matrixA, matrixB, executor);
+    }
+
+    /**
+     * Single threaded multiplication of a sparse matrix and a dense one
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] multiply(SparseIntMatrix matrixA, int[][] matrixB) {
+        final SparseIntMatrix csrA = matrixA.toCsr();
+        final int[][] matrixC = new int[csrA.getRows()][checkShapes(csrA, matrixB)];
+        multiplyRows(csrA, matrixB, matrixC, 0, csrA.getRows());
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of a sparse matrix and a dense one: the rows of {@code matrixB}
+     * selected by non-zeros of a row of {@code matrixA} are accumulated into the row of {@code matrixC}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply(SparseIntMatrix matrixA, int[][] matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final SparseIntMatrix csrA = matrixA.toCsr();
+        final int columns = checkShapes(csrA, matrixB);
+        final int[][] matrixC = new int[csrA.getRows()][columns];
+        final int[] pointers = csrA.getPointers();
+
+        final long[] rowWork = new long[csrA.getRows()];
+        for (int row = 0; row < rowWork.length; row++) {
+            rowWork[row] = (long) (pointers[row + 1] - pointers[row]) * columns + columns;
+        }
+        final int[] stripes = stripes(rowWork);
+
+        List<Callable<Void>> tasks = new ArrayList<>(stripes.length);
+        for (int stripe = 0; stripe < stripes.length - 1; stripe++) {
+            final int firstRow = stripes[stripe];
+            final int lastRow = stripes[stripe + 1];
+            tasks.add(() -> {
+                multiplyRows(csrA, matrixB, matrixC, firstRow, lastRow);
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication of a dense matrix and a sparse one
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] multiply(int[][] matrixA, SparseIntMatrix matrixB) {
+        final SparseIntMatrix csrB = matrixB.toCsr();
+        checkShapes(matrixA, csrB);
+        final int[][] matrixC = new int[matrixA.length][csrB.getColumns()];
+        multiplyRows(matrixA, csrB, matrixC, 0, matrixA.length);
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of a dense matrix and a sparse one: for every non-zero
+     * element of a row of {@code matrixA} the sparse row of {@code matrixB} is scattered into the row of {@code matrixC}
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply(int[][] matrixA, SparseIntMatrix matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final SparseIntMatrix csrB = matrixB.toCsr();
+        checkShapes(matrixA, csrB);
+        final int[][] matrixC = new int[matrixA.length][csrB.getColumns()];
+
+        final long[] rowWork = new long[matrixA.length];
+        Arrays.fill(rowWork, (long) csrB.getRows() + csrB.getNonZeros() + csrB.getColumns());
+        final int[] stripes = stripes(rowWork);
+
+        List<Callable<Void>> tasks = new ArrayList<>(stripes.length);
+        for (int stripe = 0; stripe < stripes.length - 1; stripe++) {
+            final int firstRow = stripes[stripe];
+            final int lastRow = stripes[stripe + 1];
+            tasks.add(() -> {
+                multiplyRows(matrixA, csrB, matrixC, firstRow, lastRow);
+                return null;
+            });
+        }
+
+        invokeAll(executor, tasks);
+
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication of two sparse matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} in CSR is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static SparseIntMatrix multiply(SparseIntMatrix matrixA, SparseIntMatrix matrixB) {
+        final SparseIntMatrix csrA = matrixA.toCsr();
+        final SparseIntMatrix csrB = matrixB.toCsr();
+        checkShapes(csrA, csrB);
+        return concatenate(csrA.getRows(), csrB.getColumns(), Collections.singletonList(multiplyRows(csrA, csrB, 0, csrA.getRows())));
+    }
+
+    /**
+     * Multithreading multiplication of two sparse matrices by Gustavson's algorithm:
+     * every stripe of rows is accumulated in a dense row buffer with a list of touched columns
+     * into its own CSR part, the parts are concatenated at the end
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA  is first matrix
+     * @param matrixB  is second matrix
+     * @param executor is {@code ExecutorService} to submit tasks
+     * @return {@code matrixC} in CSR is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static SparseIntMatrix concurrentMultiply(SparseIntMatrix matrixA, SparseIntMatrix matrixB, ExecutorService executor) throws InterruptedException, ExecutionException {
+        final SparseIntMatrix csrA = matrixA.toCsr();
+        final SparseIntMatrix csrB = matrixB.toCsr();
+        checkShapes(csrA, csrB);
+        final int[] pointersA = csrA.getPointers();
+        final int[] indicesA = csrA.getIndices();
+        final int[] pointersB = csrB.getPointers();
+
+        final long[] rowWork = new long[csrA.getRows()];
+        for (int row = 0; row < rowWork.length; row++) {
+            long work = 1;
+            for (int position = pointersA[row]; position < pointersA[row + 1]; position++) {
+                work += pointersB[indicesA[position] + 1] - pointersB[indicesA[position]];
+            }
+            rowWork[row] = work;
+        }
+        final int[] stripes = stripes(rowWork);
+
+        List<Callable<Part>> tasks = new ArrayList<>(stripes.length);
+        for (int stripe = 0; stripe < stripes.length - 1; stripe++) {
+            final int firstRow = stripes[stripe];
+            final int lastRow = stripes[stripe + 1];
+            tasks.add(() -> multiplyRows(csrA, csrB, firstRow, lastRow));
+        }
+
+        List<Part> parts = new ArrayList<>(tasks.size());
+        for (Future<Part> future : executor.invokeAll(tasks)) {
+            parts.add(future.get());
+        }
+
+        return concatenate(csrA.getRows(), csrB.getColumns(), parts);
+    }
+
+    /**
+     * @return density threshold of {@link #concurrentMultiply(int[][], int[][], ExecutorService)}
+     */
+    public static double getSparseThreshold() {
+        final String threshold = System.getProperty("matrix.sparseThreshold");
+        return threshold == null ? DEFAULT_SPARSE_THRESHOLD : Double.parseDouble(threshold);
+    }
+
+    /**
+     * CSR rows {@code [firstRow, lastRow)} of a sparse product
+     */
+    private static class Part {
+        private final int[] rowLengths;
+        private final int[] indices;
+        private final int[] values;
+        private final int size;
+
+        Part(int[] rowLengths, int[] indices, int[] values, int size) {
+            this.rowLengths = rowLengths;
+            this.indices = indices;
+            this.values = values;
+            this.size = size;
+        }
+    }
+
+    private static void multiplyRows(SparseIntMatrix csrA, int[][] matrixB, int[][] matrixC, int firstRow, int lastRow) {
+        final int[] pointers = csrA.getPointers();
+        final int[] indices = csrA.getIndices();
+        final int[] values = csrA.getValues();
+        for (int row = firstRow; row < lastRow; row++) {
+            final int[] rowC = matrixC[row];
+            for (int position = pointers[row]; position < pointers[row + 1]; position++) {
+                final int elementA = values[position];
+                final int[] rowB = matrixB[indices[position]];
+                for (int column = 0; column < rowC.length; column++) {
+                    rowC[column] += elementA * rowB[column];
+                }
+            }
+        }
+    }
+
+    private static void multiplyRows(int[][] matrixA, SparseIntMatrix csrB, int[][] matrixC, int firstRow, int lastRow) {
+        final int[] pointers = csrB.getPointers();
+        final int[] indices = csrB.getIndices();
+        final int[] values = csrB.getValues();
+        for (int row = firstRow; row < lastRow; row++) {
+            final int[] rowA = matrixA[row];
+            final int[] rowC = matrixC[row];
+            for (int k = 0; k < rowA.length; k++) {
+                final int elementA = rowA[k];
+                if (elementA == 0) {
+                    continue;
+                }
+                for (int position = pointers[k]; position < pointers[k + 1]; position++) {
+                    rowC[indices[position]] += elementA * values[position];
+                }
+            }
+        }
+    }
+
+    private static Part multiplyRows(SparseIntMatrix csrA, SparseIntMatrix csrB, int firstRow, int lastRow) {
+        final int[] pointersA = csrA.getPointers();
+        final int[] indicesA = csrA.getIndices();
+        final int[] valuesA = csrA.getValues();
+        final int[] pointersB = csrB.getPointers();
+        final int[] indicesB = csrB.getIndices();
+        final int[] valuesB = csrB.getValues();
+        final int columns = csrB.getColumns();
+
+        final int[] accumulator = new int[columns];
+        final int[] marker = new int[columns];
+        Arrays.fill(marker, -1);
+        final int[] touched = new int[columns];
+        final int[] rowLengths = new int[lastRow - firstRow];
+        int[] indices = new int[16];
+        int[] values = new int[16];
+        int size = 0;
+
+        for (int row = firstRow; row < lastRow; row++) {
+            int touchedCount = 0;
+            for (int positionA = pointersA[row]; positionA < pointersA[row + 1]; positionA++) {
+                final int k = indicesA[positionA];
+                final int elementA = valuesA[positionA];
+                for (int positionB = pointersB[k]; positionB < pointersB[k + 1]; positionB++) {
+                    final int column = indicesB[positionB];
+                    if (marker[column] != row) {
+                        marker[column] = row;
+                        touched[touchedCount++] = column;
+                        accumulator[column] = elementA * valuesB[positionB];
+                    } else {
+                        accumulator[column] += elementA * valuesB[positionB];
+                    }
+                }
+            }
+
+            Arrays.sort(touched, 0, touchedCount);
+            if (size + touchedCount > indices.length) {
+                final int capacity = Math.max(size + touchedCount, indices.length * 2);
+                indices = Arrays.copyOf(indices, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            final int rowStart = size;
+            for (int i = 0; i < touchedCount; i++) {
+                final int column = touched[i];
+                if (accumulator[column] != 0) {
+                    indices[size] = column;
+                    values[size++] = accumulator[column];
+                }
+            }
+            rowLengths[row - firstRow] = size - rowStart;
+        }
+        return new Part(rowLengths, indices, values, size);
+    }
+
+    private static SparseIntMatrix concatenate(int rows, int columns, List<Part> parts) {
+        int nonZeros = 0;
+        for (Part part : parts) {
+            nonZeros += part.size;
+        }
+        final int[] pointers = new int[rows + 1];
+        final int[] indices = new int[nonZeros];
+        final int[] values = new int[nonZeros];
+        int row = 0;
+        int position = 0;
+        for (Part part : parts) {
+            for (int rowLength : part.rowLengths) {
+                pointers[row + 1] = pointers[row] + rowLength;
+                row++;
+            }
+            System.arraycopy(part.indices, 0, indices, position, part.size);
+            System.arraycopy(part.values, 0, values, position, part.size);
+            position += part.size;
+        }
+        return new SparseIntMatrix(SparseIntMatrix.Format.CSR, rows, columns, pointers, indices, values);
+    }
+
+    /**
+     * Splitting rows into stripes of at least {@code MIN_TASK_WORK} work
+     *
+     * @return {@code boundaries} of stripes: first row of each stripe and number of rows at the end
+     */
+    private static int[] stripes(long[] rowWork) {
+        final int[] boundaries = new int[rowWork.length + 2];
+        int count = 1;
+        long work = 0;
+        for (int row = 0; row < rowWork.length; row++) {
+            work += rowWork[row];
+            if (work >= MIN_TASK_WORK && row + 1 < rowWork.length) {
+                boundaries[count++] = row + 1;
+                work = 0;
+            }
+        }
+        boundaries[count++] = rowWork.length;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private static int checkShapes(SparseIntMatrix matrixA, int[][] matrixB) {
+        if (matrixA.getColumns() != matrixB.length) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matrixA + " and " + matrixB.length + "xN");
+        }
+        return matrixB.length == 0 ? 0 : matrixB[0].length;
+    }
+
+    private static void checkShapes(int[][] matrixA, SparseIntMatrix matrixB) {
+        if (matrixA.length > 0 && matrixA[0].length != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + matrixA[0].length + " and " + matrixB);
+        }
+    }
+
+    private static void checkShapes(SparseIntMatrix matrixA, SparseIntMatrix matrixB) {
+        if (matrixA.getColumns() != matrixB.getRows()) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: " + matrixA + " and " + matrixB);
+        }
+    }
+}
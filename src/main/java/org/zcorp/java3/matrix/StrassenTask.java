@@ -0,0 +1,171 @@
+package org.zcorp.java3.matrix;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Strassen-Winograd multiplication {@code matrixC += matrixA * matrixB} of square matrices:
+ * 7 half-size products and 15 additions per level instead of 8 products.
+ * Odd sizes are handled by peeling off the last row and column, which are computed by the blocked kernel.
+ * Below {@code crossover} the blocked kernel is used directly.
+ * <p>
+ * int arithmetic wraps around modulo 2^32 and the Winograd identities hold in this ring,
+ * so the result is exactly equal to the one of the classical algorithm even on overflow
+ */
+class StrassenTask extends RecursiveAction {
+    private final IntMatrix matrixA;
+    private final IntMatrix matrixB;
+    private final IntMatrix matrixC;
+    private final int crossover;
+    private final int blockSize;
+    private final boolean parallel;
+
+    StrassenTask(IntMatrix matrixA, IntMatrix matrixB, IntMatrix matrixC, int crossover, int blockSize, boolean parallel) {
+        this.matrixA = matrixA;
+        this.matrixB = matrixB;
+        this.matrixC = matrixC;
+        this.crossover = crossover;
+        this.blockSize = blockSize;
+        this.parallel = parallel;
+    }
+
+    @Override
+    protected void compute() {
+        final int matrixSize = matrixA.getRows();
+        if (matrixSize <= crossover || matrixSize < 2) {
+            MatrixUtil.multiplyAdd(matrixA, matrixB, matrixC, blockSize);
+        } else if (matrixSize % 2 != 0) {
+            computePeeled(matrixSize);
+        } else {
+            computeEven(matrixSize / 2);
+        }
+    }
+
+    private void computePeeled(int matrixSize) {
+        final int evenSize = matrixSize - 1;
+        new StrassenTask(
+                matrixA.view(0, 0, evenSize, evenSize),
+                matrixB.view(0, 0, evenSize, evenSize),
+                matrixC.view(0, 0, evenSize, evenSize),
+                crossover, blockSize, parallel).compute();
+        MatrixUtil.multiplyAdd(
+                matrixA.view(0, evenSize, evenSize, 1),
+                matrixB.view(evenSize, 0, 1, evenSize),
+                matrixC.view(0, 0, evenSize, evenSize), blockSize);
+        MatrixUtil.multiplyAdd(
+                matrixA.view(0, 0, evenSize, matrixSize),
+                matrixB.view(0, evenSize, matrixSize, 1),
+                matrixC.view(0, evenSize, evenSize, 1), blockSize);
+        MatrixUtil.multiplyAdd(
+                matrixA.view(evenSize, 0, 1, matrixSize),
+                matrixB,
+                matrixC.view(evenSize, 0, 1, matrixSize), blockSize);
+    }
+
+    private void computeEven(int half) {
+        final IntMatrix a11 = matrixA.view(0, 0, half, half);
+        final IntMatrix a12 = matrixA.view(0, half, half, half);
+        final IntMatrix a21 = matrixA.view(half, 0, half, half);
+        final IntMatrix a22 = matrixA.view(half, half, half, half);
+        final IntMatrix b11 = matrixB.view(0, 0, half, half);
+        final IntMatrix b12 = matrixB.view(0, half, half, half);
+        final IntMatrix b21 = matrixB.view(half, 0, half, half);
+        final IntMatrix b22 = matrixB.view(half, half, half, half);
+
+        final IntMatrix s1 = add(a21, a22);
+        final IntMatrix s2 = subtract(s1, a11);
+        final IntMatrix s3 = subtract(a11, a21);
+        final IntMatrix s4 = subtract(a12, s2);
+        final IntMatrix t1 = subtract(b12, b11);
+        final IntMatrix t2 = subtract(b22, t1);
+        final IntMatrix t3 = subtract(b22, b12);
+        final IntMatrix t4 = subtract(t2, b21);
+
+        final IntMatrix p1 = new IntMatrix(half, half);
+        final IntMatrix p2 = new IntMatrix(half, half);
+        final IntMatrix p3 = new IntMatrix(half, half);
+        final IntMatrix p4 = new IntMatrix(half, half);
+        final IntMatrix p5 = new IntMatrix(half, half);
+        final IntMatrix p6 = new IntMatrix(half, half);
+        final IntMatrix p7 = new IntMatrix(half, half);
+
+        final StrassenTask[] products = {
+                product(a11, b11, p1),
+                product(a12, b21, p2),
+                product(s4, b22, p3),
+                product(a22, t4, p4),
+                product(s1, t1, p5),
+                product(s2, t2, p6),
+                product(s3, t3, p7)
+        };
+        if (parallel) {
+            invokeAll(products);
+        } else {
+            for (StrassenTask product : products) {
+                product.compute();
+            }
+        }
+
+        // u2 = p1 + p6, u3 = u2 + p7
+        final IntMatrix u2 = p6;
+        addInto(u2, p1);
+        final IntMatrix u3 = p7;
+        addInto(u3, u2);
+
+        // c11 += p1 + p2, c12 += u2 + p5 + p3, c21 += u3 - p4, c22 += u3 + p5
+        final IntMatrix c11 = matrixC.view(0, 0, half, half);
+        final IntMatrix c12 = matrixC.view(0, half, half, half);
+        final IntMatrix c21 = matrixC.view(half, 0, half, half);
+        final IntMatrix c22 = matrixC.view(half, half, half, half);
+        addInto(c11, p1);
+        addInto(c11, p2);
+        addInto(c12, u2);
+        addInto(c12, p5);
+        addInto(c12, p3);
+        addInto(c21, u3);
+        subtractInto(c21, p4);
+        addInto(c22, u3);
+        addInto(c22, p5);
+    }
+
+    private StrassenTask product(IntMatrix left, IntMatrix right, IntMatrix result) {
+        return new StrassenTask(left, right, result, crossover, blockSize, parallel);
+    }
+
+    private static IntMatrix add(IntMatrix left, IntMatrix right) {
+        final IntMatrix result = new IntMatrix(left.getRows(), left.getColumns());
+        addInto(result, left);
+        addInto(result, right);
+        return result;
+    }
+
+    private static IntMatrix subtract(IntMatrix left, IntMatrix right) {
+        final IntMatrix result = new IntMatrix(left.getRows(), left.getColumns());
+        addInto(result, left);
+        subtractInto(result, right);
+        return result;
+    }
+
+    private static void addInto(IntMatrix target, IntMatrix matrix) {
+        final int[] dataT = target.getData();
+        final int[] data = matrix.getData();
+        for (int row = 0; row < target.getRows(); row++) {
+            final int rowT = target.index(row, 0);
+            final int rowM = matrix.index(row, 0);
+            for (int column = 0; column < target.getColumns(); column++) {
+                dataT[rowT + column] += data[rowM + column];
+            }
+        }
+    }
+
+    private static void subtractInto(IntMatrix target, IntMatrix matrix) {
+        final int[] dataT = target.getData();
+        final int[] data = matrix.getData();
+        for (int row = 0; row < target.getRows(); row++) {
+            final int rowT = target.index(row, 0);
+            final int rowM = matrix.index(row, 0);
+            for (int column = 0; column < target.getColumns(); column++) {
+                dataT[rowT + column] -= data[rowM + column];
+            }
+        }
+    }
+}
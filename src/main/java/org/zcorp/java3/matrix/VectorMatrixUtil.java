@@ -0,0 +1,125 @@
+package org.zcorp.java3.matrix;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Row-broadcast multiplication with explicit SIMD.
+ * <p>
+ * This is the scalar fallback for JDK 8-16. On JDK 17+ the multi-release jar provides a version of this class
+ * built on {@code jdk.incubator.vector} ({@code IntVector}/{@code FloatVector}), which is used when the JVM
+ * is started with {@code --add-modules jdk.incubator.vector}. See {@code src/main/java17}
+ */
+public class VectorMatrixUtil {
+
+    /**
+     * @return {@code true} if kernels of this class use the Vector API
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Single threaded multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] singleThreadMultiply(int[][] matrixA, int[][] matrixB) {
+        final int[][] matrixC = new int[matrixA.length][columns(matrixA, matrixB)];
+        for (int row = 0; row < matrixA.length; row++) {
+            multiplyRow(matrixA[row], matrixB, matrixC[row]);
+        }
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static float[][] singleThreadMultiply(float[][] matrixA, float[][] matrixB) {
+        final float[][] matrixC = new float[matrixA.length][columns(matrixA, matrixB)];
+        for (int row = 0; row < matrixA.length; row++) {
+            multiplyRow(matrixA[row], matrixB, matrixC[row]);
+        }
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices: parallel stream over rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run the stream, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply(int[][] matrixA, int[][] matrixB, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        final int[][] matrixC = new int[matrixA.length][columns(matrixA, matrixB)];
+        pool.submit(
+                () -> IntStream.range(0, matrixA.length)
+                        .parallel()
+                        .forEach(row -> multiplyRow(matrixA[row], matrixB, matrixC[row])))
+                .get();
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices: parallel stream over rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run the stream, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static float[][] concurrentMultiply(float[][] matrixA, float[][] matrixB, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        final float[][] matrixC = new float[matrixA.length][columns(matrixA, matrixB)];
+        pool.submit(
+                () -> IntStream.range(0, matrixA.length)
+                        .parallel()
+                        .forEach(row -> multiplyRow(matrixA[row], matrixB, matrixC[row])))
+                .get();
+        return matrixC;
+    }
+
+    private static void multiplyRow(int[] rowA, int[][] matrixB, int[] rowC) {
+        for (int i = 0; i < rowA.length; i++) {
+            int elementA = rowA[i];
+            int rowB[] = matrixB[i];
+            for (int column = 0; column < rowC.length; column++) {
+                rowC[column] += elementA * rowB[column];
+            }
+        }
+    }
+
+    private static void multiplyRow(float[] rowA, float[][] matrixB, float[] rowC) {
+        for (int i = 0; i < rowA.length; i++) {
+            float elementA = rowA[i];
+            float rowB[] = matrixB[i];
+            for (int column = 0; column < rowC.length; column++) {
+                rowC[column] += elementA * rowB[column];
+            }
+        }
+    }
+
+    private static int columns(Object[] matrixA, Object[] matrixB) {
+        if (matrixA.length > 0 && Array.getLength(matrixA[0]) != matrixB.length) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + Array.getLength(matrixA[0]) + " and " + matrixB.length + "xN");
+        }
+        return matrixB.length == 0 ? 0 : Array.getLength(matrixB[0]);
+    }
+}
@@ -1,18 +1,16 @@
 package org.zcorp.java3.matrix.benchmark;
 
 import org.openjdk.jmh.annotations.*;
-import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
-import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.zcorp.java3.matrix.IntMatrix;
 import org.zcorp.java3.matrix.MatrixUtil;
 
 import java.util.concurrent.TimeUnit;
 
-@Warmup(iterations = 5)
-@Measurement(iterations = 5)
-@BenchmarkMode({Mode.SingleShotTime})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Benchmark)
 @Threads(1)
@@ -20,30 +18,41 @@ import java.util.concurrent.TimeUnit;
 @Timeout(time = 5, timeUnit = TimeUnit.MINUTES)
 public abstract class AbstractMatrixBenchmark {
 
-    private static final int MATRIX_SIZE = 1000;
+    /**
+     * Shape of the multiplication: {@code N} for square N x N matrices or {@code NxKxM} for (N x K) * (K x M).
+     * Defaults are one small, medium and large square and two skewed shapes, so the whole suite runs in hours;
+     * run others with e.g. {@code -p shape=4096,4096x256x4096}
+     */
+    @Param({"128", "512", "2048", "256x4096x256", "1024x64x1024"})
+    protected String shape;
+
+    protected int rows;
+    protected int inner;
+    protected int columns;
 
     protected int[][] matrixA;
     protected int[][] matrixB;
 
+    protected IntMatrix flatMatrixA;
+    protected IntMatrix flatMatrixB;
+
     @Setup
     public void matricesSetup() {
-        matrixA = MatrixUtil.create(MATRIX_SIZE);
-        matrixB = MatrixUtil.create(MATRIX_SIZE);
+        final String[] dimensions = shape.split("x");
+        if (dimensions.length != 1 && dimensions.length != 3) {
+            throw new IllegalArgumentException("Shape must be N or NxKxM: " + shape);
+        }
+        rows = Integer.parseInt(dimensions[0]);
+        inner = Integer.parseInt(dimensions[dimensions.length == 1 ? 0 : 1]);
+        columns = Integer.parseInt(dimensions[dimensions.length == 1 ? 0 : 2]);
+        matrixA = MatrixUtil.create(rows, inner);
+        matrixB = MatrixUtil.create(inner, columns);
+        flatMatrixA = IntMatrix.of(matrixA);
+        flatMatrixB = IntMatrix.of(matrixB);
     }
 
-    public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
-                .include(MatrixBenchmarkWithExecutorService.class.getSimpleName())
-                .include(MatrixBenchmarkWithoutExecutorService.class.getSimpleName())
-                .warmupIterations(5)
-                .measurementIterations(5)
-                .mode(Mode.SingleShotTime)
-                .timeUnit(TimeUnit.MILLISECONDS)
-                .threads(1)
-                .forks(1)
-                .timeout(TimeValue.minutes(5))
-                .build();
-        new Runner(options).run();
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        MatrixBenchmarkSuite.main(args);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.zcorp.java3.matrix.BatchMatrixUtil;
+import org.zcorp.java3.matrix.IntMatrixBatch;
+import org.zcorp.java3.matrix.MatrixUtil;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a batch of small multiplications: a loop over the existing methods against the batch API.
+ * One operation is the whole batch
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+public class BatchMatrixBenchmark {
+
+    @Param({"16", "64", "128"})
+    private int matrixSize;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private int[][][] matricesA;
+    private int[][][] matricesB;
+    private IntMatrixBatch batchA;
+    private IntMatrixBatch batchB;
+    private IntMatrixBatch batchC;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        matricesA = new int[batchSize][][];
+        matricesB = new int[batchSize][][];
+        for (int i = 0; i < batchSize; i++) {
+            matricesA[i] = MatrixUtil.create(matrixSize);
+            matricesB[i] = MatrixUtil.create(matrixSize);
+        }
+        batchA = IntMatrixBatch.of(matricesA);
+        batchB = IntMatrixBatch.of(matricesB);
+        batchC = new IntMatrixBatch(batchSize, matrixSize, matrixSize);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int[][][] loopSingleThreadMultiply2() {
+        final int[][][] matricesC = new int[batchSize][][];
+        for (int i = 0; i < batchSize; i++) {
+            matricesC[i] = MatrixUtil.singleThreadMultiply2(matricesA[i], matricesB[i]);
+        }
+        return matricesC;
+    }
+
+    @Benchmark
+    public int[][][] loopConcurrentMultiply3() throws Exception {
+        final int[][][] matricesC = new int[batchSize][][];
+        for (int i = 0; i < batchSize; i++) {
+            matricesC[i] = MatrixUtil.concurrentMultiply3(matricesA[i], matricesB[i], executor);
+        }
+        return matricesC;
+    }
+
+    @Benchmark
+    public int[][][] batchConcurrentMultiply() throws Exception {
+        return BatchMatrixUtil.concurrentMultiply(matricesA, matricesB, executor);
+    }
+
+    @Benchmark
+    public IntMatrixBatch stridedBatchConcurrentMultiply() throws Exception {
+        return BatchMatrixUtil.concurrentMultiply(batchA, batchB, batchC, executor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BatchMatrixBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparison of two JMH runs exported with {@code -rf csv}.
+ * A benchmark is a regression if its score is worse than the baseline by more than the threshold
+ * and the score error intervals of the two runs do not overlap, so noise within the error is not reported.
+ * For {@code thrpt} higher score is better, for other modes lower score is better.
+ * <p>
+ * Usage: {@code BenchmarkComparator baseline.csv candidate.csv [thresholdPercent]}, exit status is 1 if there are regressions
+ */
+public class BenchmarkComparator {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator baseline.csv candidate.csv [thresholdPercent]");
+            System.exit(2);
+        }
+        final double thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        final Map<String, Result> baseline = read(args[0]);
+        final Map<String, Result> candidate = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Result> entry : candidate.entrySet()) {
+            final Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            final Result after = entry.getValue();
+            final double changePercent = (after.score - before.score) / before.score * 100;
+            final double worsePercent = after.higherIsBetter() ? -changePercent : changePercent;
+            final boolean overlap = after.score - after.error <= before.score + before.error
+                    && before.score - before.error <= after.score + after.error;
+            final boolean regression = worsePercent > thresholdPercent && !overlap;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%n",
+                    entry.getKey(), before.score, after.score, changePercent, regression ? "REGRESSION" : "");
+        }
+        System.out.println(regressions + " regression(s), threshold " + thresholdPercent + '%');
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(String file) throws IOException {
+        final List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        final Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        final List<String> header = parseLine(lines.get(0));
+        final int benchmarkColumn = header.indexOf("Benchmark");
+        final int modeColumn = header.indexOf("Mode");
+        final int scoreColumn = header.indexOf("Score");
+        final int errorColumn = header.indexOf("Score Error (99.9%)");
+        if (benchmarkColumn < 0 || modeColumn < 0 || scoreColumn < 0) {
+            throw new IllegalArgumentException(file + " is not a JMH CSV result");
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final List<String> fields = parseLine(line);
+            final String benchmark = fields.get(benchmarkColumn);
+            // secondary results of profilers, e.g. "multiply:·gc.alloc.rate"
+            if (benchmark.indexOf(':') >= 0) {
+                continue;
+            }
+            final StringBuilder key = new StringBuilder(benchmark).append(' ').append(fields.get(modeColumn));
+            for (int column = 0; column < header.size(); column++) {
+                if (header.get(column).startsWith("Param: ") && !fields.get(column).isEmpty()) {
+                    key.append(' ').append(header.get(column).substring("Param: ".length()))
+                            .append('=').append(fields.get(column));
+                }
+            }
+            results.put(key.toString(), new Result(
+                    fields.get(modeColumn),
+                    Double.parseDouble(fields.get(scoreColumn)),
+                    errorColumn < 0 ? 0 : parseError(fields.get(errorColumn))));
+        }
+        return results;
+    }
+
+    private static double parseError(String error) {
+        return error.isEmpty() || "NaN".equals(error) ? 0 : Double.parseDouble(error);
+    }
+
+    private static List<String> parseLine(String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static class Result {
+        private final String mode;
+        private final double score;
+        private final double error;
+
+        private Result(String mode, double score, double error) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+        }
+
+        private boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.zcorp.java3.matrix.DoubleMatrixUtil;
+import org.zcorp.java3.matrix.FloatMatrixUtil;
+import org.zcorp.java3.matrix.MatrixUtil;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public class FloatingPointMatrixBenchmark extends AbstractMatrixBenchmark {
+
+    private double[][] doubleMatrixA;
+    private double[][] doubleMatrixB;
+    private float[][] floatMatrixA;
+    private float[][] floatMatrixB;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        doubleMatrixA = DoubleMatrixUtil.create(rows, inner);
+        doubleMatrixB = DoubleMatrixUtil.create(inner, columns);
+        floatMatrixA = FloatMatrixUtil.create(rows, inner);
+        floatMatrixB = FloatMatrixUtil.create(inner, columns);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public double[][] doubleSingleThreadMultiply2() {
+        return DoubleMatrixUtil.singleThreadMultiply2(doubleMatrixA, doubleMatrixB);
+    }
+
+    @Benchmark
+    public double[][] doubleSingleThreadBlockedMultiply() {
+        return DoubleMatrixUtil.singleThreadBlockedMultiply(doubleMatrixA, doubleMatrixB, MatrixUtil.getBlockSize());
+    }
+
+    @Benchmark
+    public double[][] doubleConcurrentMultiply4() throws Exception {
+        return DoubleMatrixUtil.concurrentMultiply4(doubleMatrixA, doubleMatrixB, executor);
+    }
+
+    @Benchmark
+    public double[][] doubleConcurrentMultiply7() throws Exception {
+        return DoubleMatrixUtil.concurrentMultiply7(doubleMatrixA, doubleMatrixB, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public float[][] floatSingleThreadMultiply2() {
+        return FloatMatrixUtil.singleThreadMultiply2(floatMatrixA, floatMatrixB);
+    }
+
+    @Benchmark
+    public float[][] floatSingleThreadBlockedMultiply() {
+        return FloatMatrixUtil.singleThreadBlockedMultiply(floatMatrixA, floatMatrixB, MatrixUtil.getBlockSize());
+    }
+
+    @Benchmark
+    public float[][] floatConcurrentMultiply4() throws Exception {
+        return FloatMatrixUtil.concurrentMultiply4(floatMatrixA, floatMatrixB, executor);
+    }
+
+    @Benchmark
+    public float[][] floatConcurrentMultiply7() throws Exception {
+        return FloatMatrixUtil.concurrentMultiply7(floatMatrixA, floatMatrixB, ForkJoinPool.commonPool());
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.zcorp.java3.matrix.MatrixPlanner;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Every concurrent {@link MatrixPlanner.Strategy} on the same shapes and pool sizes, i.e. the table the planner chooses from.
+ * Single threaded strategies don't depend on the pool, they are measured once per shape by
+ * {@link MatrixBenchmarkWithoutExecutorService#singleThreadMultiply2()} and
+ * {@link MatrixBenchmarkWithoutExecutorService#singleThreadBlockedMultiply()}
+ */
+public class KernelMatrixBenchmark extends AbstractMatrixBenchmark {
+
+    @Param({"CONCURRENT_3", "CONCURRENT_4", "CONCURRENT_BLOCKED", "FORK_JOIN"})
+    private MatrixPlanner.Strategy kernel;
+
+    @Param({"1", "2", "4", "8"})
+    private int threadsCount;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threadsCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[][] multiply() throws Exception {
+        return kernel.multiply(matrixA, matrixB, pool);
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.LinuxPerfNormProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runner of the matrix benchmark suite. Accepts the usual JMH command line options, defaults are:
+ * <ul>
+ * <li>all matrix benchmarks except the Vector API and file ones</li>
+ * <li>GC profiler, {@code -Dmatrix.benchmark.perfnorm=true} adds {@code perfnorm} (Linux with {@code perf} only)</li>
+ * <li>JSON result in {@code jmh-result.json}, e.g. {@code -rf csv -rff baseline.csv} exports CSV for {@link BenchmarkComparator}</li>
+ * </ul>
+ */
+public class MatrixBenchmarkSuite {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(MatrixBenchmarkWithExecutorService.class.getSimpleName())
+                    .include(MatrixBenchmarkWithoutExecutorService.class.getSimpleName())
+                    .include(FloatingPointMatrixBenchmark.class.getSimpleName())
+                    .include(StrassenMatrixBenchmark.class.getSimpleName())
+                    .include(KernelMatrixBenchmark.class.getSimpleName());
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+            if (Boolean.getBoolean("matrix.benchmark.perfnorm")) {
+                options.addProfiler(LinuxPerfNormProfiler.class);
+            }
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            final ResultFormatType format = commandLine.getResultFormat().orElse(ResultFormatType.JSON);
+            options.result("jmh-result." + format.name().toLowerCase());
+        }
+
+        new Runner(options.build()).run();
+    }
+
+}
@@ -5,20 +5,23 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
 import org.zcorp.java3.matrix.MatrixUtil;
+import org.zcorp.java3.matrix.PackedMatrix;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class MatrixBenchmarkWithExecutorService extends AbstractMatrixBenchmark {
 
-    @Param({"3", "4", "10"})
+    @Param({"1", "2", "4", "8", "16"})
     private int threadsCount;
 
     private ExecutorService executor;
+    private PackedMatrix packedMatrixB;
 
     @Setup
     public void setup() {
         executor = Executors.newFixedThreadPool(threadsCount);
+        packedMatrixB = PackedMatrix.of(matrixB);
     }
 
     @TearDown
@@ -46,6 +49,16 @@ public class MatrixBenchmarkWithExecutorService extends AbstractMatrixBenchmark
         return MatrixUtil.concurrentMultiply4(matrixA, matrixB, executor);
     }
 
+    @Benchmark
+    public int[][] concurrentMultiply3Packed() throws Exception {
+        return MatrixUtil.concurrentMultiply3(matrixA, packedMatrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply4Packed() throws Exception {
+        return MatrixUtil.concurrentMultiply4(matrixA, packedMatrixB, executor);
+    }
+
     @Benchmark
     public int[][] concurrentMultiply5() throws Exception {
         return MatrixUtil.concurrentMultiply5(matrixA, matrixB, executor);
@@ -56,4 +69,19 @@ public class MatrixBenchmarkWithExecutorService extends AbstractMatrixBenchmark
         return MatrixUtil.concurrentMultiply6(matrixA, matrixB, executor);
     }
 
+    @Benchmark
+    public int[][] concurrentBlockedMultiply() throws Exception {
+        return MatrixUtil.concurrentBlockedMultiply(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public long[][] concurrentMultiplyLong() throws Exception {
+        return MatrixUtil.concurrentMultiplyLong(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiplyExact() throws Exception {
+        return MatrixUtil.concurrentMultiplyExact(matrixA, matrixB, executor);
+    }
+
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.zcorp.java3.matrix.benchmark;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.zcorp.java3.matrix.IntMatrix;
 import org.zcorp.java3.matrix.MatrixUtil;
 
 public class MatrixBenchmarkWithoutExecutorService extends AbstractMatrixBenchmark {
@@ -15,9 +16,44 @@ public class MatrixBenchmarkWithoutExecutorService extends AbstractMatrixBenchma
         return MatrixUtil.singleThreadMultiply2(matrixA, matrixB);
     }
 
+    @Benchmark
+    public int[][] singleThreadBlockedMultiply() {
+        return MatrixUtil.singleThreadBlockedMultiply(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public long[][] singleThreadMultiplyLong() {
+        return MatrixUtil.singleThreadMultiplyLong(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public int[][] singleThreadMultiplyExact() {
+        return MatrixUtil.singleThreadMultiplyExact(matrixA, matrixB);
+    }
+
     @Benchmark
     public int[][] concurrentMultiply7() throws Exception {
         return MatrixUtil.concurrentMultiply7(matrixA, matrixB);
     }
 
+    @Benchmark
+    public int[][] forkJoinMultiply() {
+        return MatrixUtil.forkJoinMultiply(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public IntMatrix forkJoinMultiplyFlat() {
+        return MatrixUtil.forkJoinMultiply(flatMatrixA, flatMatrixB);
+    }
+
+    @Benchmark
+    public IntMatrix singleThreadMultiply2Flat() {
+        return MatrixUtil.singleThreadMultiply2(flatMatrixA, flatMatrixB);
+    }
+
+    @Benchmark
+    public IntMatrix singleThreadBlockedMultiplyFlat() {
+        return MatrixUtil.singleThreadBlockedMultiply(flatMatrixA, flatMatrixB);
+    }
+
 }
\ No newline at end of file
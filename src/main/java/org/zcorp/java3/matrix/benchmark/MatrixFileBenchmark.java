@@ -0,0 +1,86 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.zcorp.java3.matrix.IntMatrix;
+import org.zcorp.java3.matrix.MappedIntMatrix;
+import org.zcorp.java3.matrix.MatrixFile;
+import org.zcorp.java3.matrix.MatrixUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Saving and loading of {@link MatrixFile} against the multiplication of the same matrices
+ */
+public class MatrixFileBenchmark extends AbstractMatrixBenchmark {
+
+    private Path directory;
+    private Path intArrayFile;
+    private Path writeFile;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("matrix-benchmark");
+        intArrayFile = directory.resolve("a.mtrx");
+        writeFile = directory.resolve("w.mtrx");
+        MatrixFile.write(intArrayFile, matrixA);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(intArrayFile);
+        Files.deleteIfExists(writeFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path writeIntArray() throws IOException {
+        MatrixFile.write(writeFile, matrixA);
+        return writeFile;
+    }
+
+    @Benchmark
+    public Path writeIntMatrix() throws IOException {
+        MatrixFile.write(writeFile, flatMatrixA);
+        return writeFile;
+    }
+
+    @Benchmark
+    public int[][] readIntArray() throws IOException {
+        return MatrixFile.readIntArray(intArrayFile);
+    }
+
+    @Benchmark
+    public IntMatrix readIntMatrix() throws IOException {
+        return MatrixFile.readIntMatrix(intArrayFile);
+    }
+
+    @Benchmark
+    public long mapAndSum() throws IOException {
+        try (MappedIntMatrix matrix = MatrixFile.map(intArrayFile, true)) {
+            final IntMatrix row = new IntMatrix(1, matrix.getColumns());
+            long sum = 0;
+            for (int i = 0; i < matrix.getRows(); i++) {
+                matrix.readTile(i, 0, row);
+                for (int value : row.getData()) {
+                    sum += value;
+                }
+            }
+            return sum;
+        }
+    }
+
+    @Benchmark
+    public int[][] singleThreadMultiply2() {
+        return MatrixUtil.singleThreadMultiply2(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public IntMatrix singleThreadBlockedMultiplyFlat() {
+        return MatrixUtil.singleThreadBlockedMultiply(flatMatrixA, flatMatrixB);
+    }
+
+}
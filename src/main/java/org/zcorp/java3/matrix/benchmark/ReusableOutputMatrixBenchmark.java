@@ -0,0 +1,112 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.zcorp.java3.matrix.IntMatrix;
+import org.zcorp.java3.matrix.MatrixUtil;
+import org.zcorp.java3.matrix.MatrixWorkspace;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocating multiplications against the ones writing into a preallocated destination.
+ * Run {@link #main} (or JMH with {@code -prof gc}) and compare {@code gc.alloc.rate.norm} and {@code gc.count}
+ */
+public class ReusableOutputMatrixBenchmark extends AbstractMatrixBenchmark {
+
+    private int[][] matrixC;
+    private IntMatrix flatMatrixC;
+    private MatrixWorkspace workspace;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        matrixC = new int[matrixA.length][matrixB[0].length];
+        flatMatrixC = new IntMatrix(flatMatrixA.getRows(), flatMatrixB.getColumns());
+        workspace = new MatrixWorkspace();
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int[][] singleThreadMultiply2() {
+        return MatrixUtil.singleThreadMultiply2(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public int[][] singleThreadMultiply2Into() {
+        return MatrixUtil.singleThreadMultiply2(matrixA, matrixB, matrixC);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply3() throws Exception {
+        return MatrixUtil.concurrentMultiply3(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply3Into() throws Exception {
+        return MatrixUtil.concurrentMultiply3(matrixA, matrixB, matrixC, executor, workspace);
+    }
+
+    @Benchmark
+    public IntMatrix singleThreadBlockedMultiplyFlat() {
+        return MatrixUtil.singleThreadBlockedMultiply(flatMatrixA, flatMatrixB, MatrixUtil.getBlockSize());
+    }
+
+    @Benchmark
+    public IntMatrix singleThreadBlockedMultiplyFlatInto() {
+        return MatrixUtil.singleThreadBlockedMultiply(flatMatrixA, flatMatrixB, flatMatrixC, MatrixUtil.getBlockSize());
+    }
+
+    @Benchmark
+    public IntMatrix concurrentMultiply4Flat() throws Exception {
+        return MatrixUtil.concurrentMultiply4(flatMatrixA, flatMatrixB, executor);
+    }
+
+    @Benchmark
+    public IntMatrix concurrentMultiply4FlatInto() throws Exception {
+        return MatrixUtil.concurrentMultiply4(flatMatrixA, flatMatrixB, flatMatrixC, executor, workspace);
+    }
+
+    @Benchmark
+    public IntMatrix forkJoinMultiplyFlat() {
+        return MatrixUtil.forkJoinMultiply(flatMatrixA, flatMatrixB, ForkJoinPool.commonPool(), MatrixUtil.getBlockSize());
+    }
+
+    @Benchmark
+    public IntMatrix forkJoinMultiplyFlatInto() {
+        return MatrixUtil.forkJoinMultiply(flatMatrixA, flatMatrixB, flatMatrixC, ForkJoinPool.commonPool(), MatrixUtil.getBlockSize());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReusableOutputMatrixBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .threads(1)
+                .forks(1)
+                .timeout(TimeValue.minutes(5))
+                .build();
+        new Runner(options).run();
+    }
+
+}
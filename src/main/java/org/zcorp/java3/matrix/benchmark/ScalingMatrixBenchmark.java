@@ -0,0 +1,193 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.zcorp.java3.matrix.MatrixUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel kernels on pools of 1..N threads.
+ * {@link #main} sweeps the number of threads and prints speedup and parallel efficiency of every kernel
+ * relative to {@link MatrixUtil#singleThreadMultiply2(int[][], int[][])}:
+ * <ul>
+ * <li>{@code -Dmatrix.scaling.maxThreads=N} is the largest pool, the number of processors by default.
+ * Pools are 1, 2, 4, ... threads and N</li>
+ * <li>{@code -p shape=...} selects the shapes, 1024 by default</li>
+ * <li>other JMH command line options are accepted as well</li>
+ * </ul>
+ * Speedup is {@code T(singleThreadMultiply2) / T(kernel)}, efficiency is {@code speedup / threads}.
+ * A kernel saturates at the smallest pool reaching 95% of its best speedup
+ */
+@BenchmarkMode(Mode.AverageTime)
+public class ScalingMatrixBenchmark extends AbstractMatrixBenchmark {
+    private static final double SATURATION = 0.95;
+
+    @Param({"1", "2", "4", "8"})
+    private int threadsCount;
+
+    private ExecutorService executor;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(threadsCount);
+        pool = new ForkJoinPool(threadsCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply1() throws Exception {
+        return MatrixUtil.concurrentMultiply1(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply2() throws Exception {
+        return MatrixUtil.concurrentMultiply2(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply3() throws Exception {
+        return MatrixUtil.concurrentMultiply3(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply4() throws Exception {
+        return MatrixUtil.concurrentMultiply4(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply5() throws Exception {
+        return MatrixUtil.concurrentMultiply5(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply6() throws Exception {
+        return MatrixUtil.concurrentMultiply6(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] concurrentMultiply7() throws Exception {
+        return MatrixUtil.concurrentMultiply7(matrixA, matrixB, threadsCount);
+    }
+
+    @Benchmark
+    public int[][] concurrentBlockedMultiply() throws Exception {
+        return MatrixUtil.concurrentBlockedMultiply(matrixA, matrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] forkJoinMultiply() {
+        return MatrixUtil.forkJoinMultiply(matrixA, matrixB, pool);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(ScalingMatrixBenchmark.class.getName() + '.')
+                    .include(MatrixBenchmarkWithoutExecutorService.class.getName() + ".singleThreadMultiply2$");
+        }
+        if (commandLine.getBenchModes().isEmpty()) {
+            options.mode(Mode.AverageTime);
+        }
+        if (!commandLine.getParameter("shape").hasValue()) {
+            options.param("shape", "1024");
+        }
+        if (!commandLine.getParameter("threadsCount").hasValue()) {
+            options.param("threadsCount", threadCounts(Integer.getInteger(
+                    "matrix.scaling.maxThreads", Runtime.getRuntime().availableProcessors())));
+        }
+
+        printReport(new Runner(options.build()).run());
+    }
+
+    private static String[] threadCounts(int maxThreads) {
+        final List<String> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(String.valueOf(threads));
+        }
+        counts.add(String.valueOf(maxThreads));
+        return counts.toArray(new String[0]);
+    }
+
+    private static void printReport(Collection<RunResult> results) {
+        // shape -> baseline time, shape -> kernel -> threads -> time
+        final Map<String, Double> baselines = new TreeMap<>();
+        final Map<String, Map<String, Map<Integer, Double>>> times = new TreeMap<>();
+        final TreeSet<Integer> allThreads = new TreeSet<>();
+        for (RunResult result : results) {
+            final String benchmark = result.getParams().getBenchmark();
+            final String kernel = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            final String shape = result.getParams().getParam("shape");
+            final double score = result.getPrimaryResult().getScore();
+            if (benchmark.startsWith(ScalingMatrixBenchmark.class.getName() + '.')) {
+                final int threads = Integer.parseInt(result.getParams().getParam("threadsCount"));
+                allThreads.add(threads);
+                times.computeIfAbsent(shape, s -> new TreeMap<>())
+                        .computeIfAbsent(kernel, k -> new TreeMap<>())
+                        .put(threads, score);
+            } else {
+                baselines.put(shape, score);
+            }
+        }
+
+        for (Map.Entry<String, Map<String, Map<Integer, Double>>> shapeEntry : times.entrySet()) {
+            final Double baseline = baselines.get(shapeEntry.getKey());
+            if (baseline == null) {
+                System.out.println("No singleThreadMultiply2 result for shape " + shapeEntry.getKey());
+                continue;
+            }
+            System.out.printf("%nShape %s, singleThreadMultiply2 %.3f, speedup / efficiency%n", shapeEntry.getKey(), baseline);
+            System.out.printf("%-26s", "Kernel");
+            for (int threads : allThreads) {
+                System.out.printf(" %15s", threads + " threads");
+            }
+            System.out.printf(" %12s%n", "Saturates at");
+
+            for (Map.Entry<String, Map<Integer, Double>> kernelEntry : shapeEntry.getValue().entrySet()) {
+                System.out.printf("%-26s", kernelEntry.getKey());
+                double bestSpeedup = 0;
+                for (int threads : allThreads) {
+                    final Double time = kernelEntry.getValue().get(threads);
+                    if (time == null) {
+                        System.out.printf(" %15s", "-");
+                        continue;
+                    }
+                    final double speedup = baseline / time;
+                    bestSpeedup = Math.max(bestSpeedup, speedup);
+                    System.out.printf(" %7.2fx %5.0f%%", speedup, speedup / threads * 100);
+                }
+                int saturation = 0;
+                for (Map.Entry<Integer, Double> entry : kernelEntry.getValue().entrySet()) {
+                    if (baseline / entry.getValue() >= bestSpeedup * SATURATION) {
+                        saturation = entry.getKey();
+                        break;
+                    }
+                }
+                System.out.printf(" %12d%n", saturation);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.zcorp.java3.matrix.MatrixUtil;
+import org.zcorp.java3.matrix.SparseIntMatrix;
+import org.zcorp.java3.matrix.SparseMatrixUtil;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SparseMatrixBenchmark extends AbstractMatrixBenchmark {
+
+    @Param({"0.01", "0.05", "0.2"})
+    private double density;
+
+    private int[][] sparseMatrixA;
+    private int[][] sparseMatrixB;
+    private SparseIntMatrix csrMatrixA;
+    private SparseIntMatrix csrMatrixB;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        sparseMatrixA = sparsify(matrixA, random);
+        sparseMatrixB = sparsify(matrixB, random);
+        csrMatrixA = SparseIntMatrix.of(sparseMatrixA);
+        csrMatrixB = SparseIntMatrix.of(sparseMatrixB);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int[][] denseConcurrentMultiply3() throws Exception {
+        return MatrixUtil.concurrentMultiply3(sparseMatrixA, sparseMatrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] sparseDenseConcurrentMultiply() throws Exception {
+        return SparseMatrixUtil.concurrentMultiply(csrMatrixA, sparseMatrixB, executor);
+    }
+
+    @Benchmark
+    public SparseIntMatrix sparseSparseConcurrentMultiply() throws Exception {
+        return SparseMatrixUtil.concurrentMultiply(csrMatrixA, csrMatrixB, executor);
+    }
+
+    @Benchmark
+    public int[][] autoConcurrentMultiply() throws Exception {
+        return SparseMatrixUtil.concurrentMultiply(sparseMatrixA, sparseMatrixB, executor);
+    }
+
+    private int[][] sparsify(int[][] matrix, Random random) {
+        final int[][] sparse = new int[matrix.length][];
+        for (int row = 0; row < matrix.length; row++) {
+            sparse[row] = new int[matrix[row].length];
+            for (int column = 0; column < matrix[row].length; column++) {
+                if (random.nextDouble() < density) {
+                    sparse[row][column] = matrix[row][column] + 1;
+                }
+            }
+        }
+        return sparse;
+    }
+
+}
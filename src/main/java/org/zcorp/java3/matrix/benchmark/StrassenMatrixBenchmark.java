@@ -0,0 +1,49 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.zcorp.java3.matrix.IntMatrix;
+import org.zcorp.java3.matrix.MatrixUtil;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strassen-Winograd multiplication is defined for square matrices only,
+ * so it has its own sizes instead of the shapes of {@link AbstractMatrixBenchmark}
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@Timeout(time = 5, timeUnit = TimeUnit.MINUTES)
+public class StrassenMatrixBenchmark {
+
+    @Param({"512", "1024", "2048"})
+    private int matrixSize;
+
+    @Param({"64", "128", "256"})
+    private int crossover;
+
+    private IntMatrix matrixA;
+    private IntMatrix matrixB;
+
+    @Setup
+    public void setup() {
+        matrixA = MatrixUtil.createIntMatrix(matrixSize);
+        matrixB = MatrixUtil.createIntMatrix(matrixSize);
+    }
+
+    @Benchmark
+    public IntMatrix strassenMultiply() {
+        return MatrixUtil.strassenMultiply(matrixA, matrixB, crossover);
+    }
+
+    @Benchmark
+    public IntMatrix concurrentStrassenMultiply() {
+        return MatrixUtil.concurrentStrassenMultiply(matrixA, matrixB, ForkJoinPool.commonPool(), crossover);
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.zcorp.java3.matrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Setup;
+import org.zcorp.java3.matrix.FloatMatrixUtil;
+import org.zcorp.java3.matrix.MatrixUtil;
+import org.zcorp.java3.matrix.VectorMatrixUtil;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Vector API kernels against the scalar ones. Requires JDK 17+ and the multi-release {@code benchmarks.jar}
+ */
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorMatrixBenchmark extends AbstractMatrixBenchmark {
+
+    private float[][] floatMatrixA;
+    private float[][] floatMatrixB;
+
+    @Setup
+    public void setup() {
+        if (!VectorMatrixUtil.isVectorized()) {
+            throw new IllegalStateException("Vector API is not available, JDK 17+ and multi-release jar are required");
+        }
+        floatMatrixA = FloatMatrixUtil.create(rows, inner);
+        floatMatrixB = FloatMatrixUtil.create(inner, columns);
+    }
+
+    @Benchmark
+    public int[][] scalarSingleThreadMultiply() {
+        return MatrixUtil.singleThreadMultiply2(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public int[][] vectorSingleThreadMultiply() {
+        return VectorMatrixUtil.singleThreadMultiply(matrixA, matrixB);
+    }
+
+    @Benchmark
+    public int[][] vectorConcurrentMultiply() throws Exception {
+        return VectorMatrixUtil.concurrentMultiply(matrixA, matrixB, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public float[][] scalarFloatSingleThreadMultiply() {
+        return FloatMatrixUtil.singleThreadMultiply2(floatMatrixA, floatMatrixB);
+    }
+
+    @Benchmark
+    public float[][] vectorFloatSingleThreadMultiply() {
+        return VectorMatrixUtil.singleThreadMultiply(floatMatrixA, floatMatrixB);
+    }
+
+}
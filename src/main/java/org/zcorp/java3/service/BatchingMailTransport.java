@@ -0,0 +1,258 @@
+package org.zcorp.java3.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport grouping mails by recipient domain and sending every group over a pooled connection of the domain.
+ * <ul>
+ * <li>a mail is queued to its domain; a batch is sent as soon as {@code maxBatchSize} mails of the same template
+ * are queued or {@code lingerMillis} after the first of them, whatever comes first</li>
+ * <li>every domain has at most {@code maxConnectionsPerDomain} connections, each sends one batch at a time;
+ * connections are kept open between batches, so a handshake is paid once per connection and not per mail</li>
+ * <li>a broken connection is closed, the mails of its batch fail with {@link MailService.MailResult#error}</li>
+ * </ul>
+ * Batches are sent by a pool of {@code threads} threads, mails waiting for a batch hold no threads
+ */
+public class BatchingMailTransport implements MailTransport, Closeable {
+    static final String CLOSED = "Transport closed";
+
+    private final MailConnectionFactory connectionFactory;
+    private final int maxConnectionsPerDomain;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService timer;
+    private final Map<String, Domain> domains = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @param connectionFactory       is opening of connections
+     * @param maxConnectionsPerDomain is maximal number of open connections to one domain
+     * @param maxBatchSize            is maximal number of recipients in one batch
+     * @param lingerMillis            is maximal time a mail waits for other mails of its domain
+     * @param threads                 is number of threads sending batches
+     */
+    public BatchingMailTransport(MailConnectionFactory connectionFactory, int maxConnectionsPerDomain, int maxBatchSize,
+                                 long lingerMillis, int threads) {
+        if (maxConnectionsPerDomain <= 0 || maxBatchSize <= 0 || lingerMillis < 0 || threads <= 0) {
+            throw new IllegalArgumentException("Invalid transport settings: connections " + maxConnectionsPerDomain
+                    + ", batch " + maxBatchSize + ", linger " + lingerMillis + " ms, threads " + threads);
+        }
+        this.connectionFactory = connectionFactory;
+        this.maxConnectionsPerDomain = maxConnectionsPerDomain;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.senders = Executors.newFixedThreadPool(threads);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "mail-batch-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public MailService.MailResult send(String template, String email) throws InterruptedException {
+        try {
+            return sendAsync(template, email).get();
+        } catch (ExecutionException e) {
+            return MailService.MailResult.error(email);
+        }
+    }
+
+    @Override
+    public CompletableFuture<MailService.MailResult> sendAsync(String template, String email) {
+        final CompletableFuture<MailService.MailResult> future = new CompletableFuture<>();
+        domains.computeIfAbsent(domainOf(email), Domain::new).add(new Mail(template, email, future));
+        return future;
+    }
+
+    /**
+     * Closing idle connections and stopping the threads. Mails still queued are not sent, they and
+     * mails sent after closing complete with {@link MailService.MailResult#error}; batches in flight are finished
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Domain domain : domains.values()) {
+            domain.close();
+        }
+        senders.shutdown();
+        timer.shutdown();
+    }
+
+    static String domainOf(String email) {
+        return email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static class Mail {
+        private final String template;
+        private final String email;
+        private final CompletableFuture<MailService.MailResult> future;
+
+        private Mail(String template, String email, CompletableFuture<MailService.MailResult> future) {
+            this.template = template;
+            this.email = email;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Queue and connections of one domain, guarded by its monitor
+     */
+    private class Domain {
+        private final String name;
+        private final Deque<Mail> queue = new ArrayDeque<>();
+        private final Deque<MailConnection> idle = new ArrayDeque<>();
+        private int busy;
+        private ScheduledFuture<?> lingerFlush;
+
+        private Domain(String name) {
+            this.name = name;
+        }
+
+        private void add(Mail mail) {
+            synchronized (this) {
+                if (closed) {
+                    mail.future.complete(MailService.MailResult.error(mail.email, CLOSED));
+                    return;
+                }
+                queue.add(mail);
+                if (queue.size() < maxBatchSize && lingerFlush == null) {
+                    lingerFlush = timer.schedule(() -> dispatch(true), lingerMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            dispatch(false);
+        }
+
+        /**
+         * Starting batches while there are free connections: full batches only, or any ones if {@code flush}
+         */
+        private void dispatch(boolean flush) {
+            while (true) {
+                final List<Mail> batch;
+                synchronized (this) {
+                    if (flush) {
+                        lingerFlush = null;
+                    }
+                    if (closed || queue.isEmpty() || busy >= maxConnectionsPerDomain
+                            || (!flush && queue.size() < maxBatchSize)) {
+                        return;
+                    }
+                    batch = takeBatch();
+                    busy++;
+                }
+                try {
+                    senders.execute(() -> send(batch));
+                } catch (RejectedExecutionException e) {
+                    // closed meanwhile
+                    synchronized (this) {
+                        busy--;
+                    }
+                    reject(batch);
+                    return;
+                }
+            }
+        }
+
+        private List<Mail> takeBatch() {
+            final String template = queue.peek().template;
+            final List<Mail> batch = new ArrayList<>(Math.min(maxBatchSize, queue.size()));
+            while (batch.size() < maxBatchSize && !queue.isEmpty() && queue.peek().template.equals(template)) {
+                final Mail mail = queue.poll();
+                // cancelled by the caller, e.g. sendToList interrupted by faults
+                if (!mail.future.isDone()) {
+                    batch.add(mail);
+                }
+            }
+            return batch;
+        }
+
+        private void send(List<Mail> batch) {
+            MailConnection connection = null;
+            try {
+                if (!batch.isEmpty()) {
+                    connection = borrow();
+                    final List<String> emails = new ArrayList<>(batch.size());
+                    for (Mail mail : batch) {
+                        emails.add(mail.email);
+                    }
+                    final List<MailService.MailResult> results = connection.send(batch.get(0).template, emails);
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).future.complete(results.get(i));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // log e
+                close(connection);
+                connection = null;
+                for (Mail mail : batch) {
+                    mail.future.complete(MailService.MailResult.error(mail.email));
+                }
+            } finally {
+                synchronized (this) {
+                    if (connection != null && !closed) {
+                        idle.push(connection);
+                        connection = null;
+                    }
+                    busy--;
+                }
+                close(connection);
+            }
+            // mails queued while all connections were busy are sent without waiting for a full batch
+            dispatch(true);
+        }
+
+        private MailConnection borrow() throws IOException {
+            synchronized (this) {
+                if (!idle.isEmpty()) {
+                    return idle.pop();
+                }
+            }
+            return connectionFactory.connect(name);
+        }
+
+        private synchronized void close() {
+            if (lingerFlush != null) {
+                lingerFlush.cancel(false);
+                lingerFlush = null;
+            }
+            reject(queue);
+            queue.clear();
+            while (!idle.isEmpty()) {
+                close(idle.pop());
+            }
+        }
+
+        private void reject(Iterable<Mail> mails) {
+            for (Mail mail : mails) {
+                mail.future.complete(MailService.MailResult.error(mail.email, CLOSED));
+            }
+        }
+
+        private void close(MailConnection connection) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    // log e
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.zcorp.java3.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of one domain.
+ * <ul>
+ * <li>CLOSED: requests pass, {@code failureThreshold} consecutive failures open the circuit</li>
+ * <li>OPEN: requests are rejected for {@code openMillis}</li>
+ * <li>HALF_OPEN: one trial request passes, its success closes the circuit and its failure opens it again</li>
+ * </ul>
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold <= 0 || openMillis < 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker: threshold " + failureThreshold + ", open " + openMillis + " ms");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * @return {@code true} if a request may be sent, it must be followed by {@link #record(boolean)}
+     */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param success is outcome of an allowed request
+     */
+    synchronized void record(boolean success) {
+        if (success) {
+            failures = 0;
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+            }
+        } else if (state == State.HALF_OPEN || state == State.CLOSED && ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            failures = 0;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
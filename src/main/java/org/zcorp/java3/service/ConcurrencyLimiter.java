@@ -0,0 +1,144 @@
+package org.zcorp.java3.service;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking limit of asynchronous operations in flight.
+ * An operation over the limit is queued and started when a running one completes, nobody waits for a permit
+ */
+class ConcurrencyLimiter {
+    private final Queue<Operation<?>> pending = new ArrayDeque<>();
+    private int limit;
+    private int inFlight;
+
+    ConcurrencyLimiter(int limit) {
+        checkLimit(limit);
+        this.limit = limit;
+    }
+
+    /**
+     * Changing the limit: a greater limit starts pending operations at once,
+     * a smaller one takes effect as operations in flight complete
+     *
+     * @param limit is maximal number of operations in flight
+     */
+    void setLimit(int limit) {
+        checkLimit(limit);
+        synchronized (this) {
+            this.limit = limit;
+        }
+        while (true) {
+            final Operation<?> next;
+            synchronized (this) {
+                if (inFlight >= this.limit || pending.isEmpty()) {
+                    return;
+                }
+                next = pending.poll();
+                inFlight++;
+            }
+            if (!next.start()) {
+                startNext();
+            }
+        }
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param operation is started when there is a free slot
+     * @return {@code future} of the operation, cancelling it before the start drops the operation
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        final Operation<T> queued = new Operation<>(operation);
+        final boolean start;
+        synchronized (this) {
+            start = inFlight < limit;
+            if (start) {
+                inFlight++;
+            } else {
+                pending.add(queued);
+            }
+        }
+        if (start && !queued.start()) {
+            startNext();
+        }
+        return queued.result;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive: " + limit);
+        }
+    }
+
+    /**
+     * Passing the slot of a finished operation to the next pending one.
+     * A loop instead of recursion: cancelled and synchronously completed operations free the slot immediately
+     */
+    private void startNext() {
+        while (true) {
+            final Operation<?> next;
+            synchronized (this) {
+                next = inFlight > limit ? null : pending.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            if (next.start()) {
+                return;
+            }
+        }
+    }
+
+    private class Operation<T> {
+        private final Supplier<CompletableFuture<T>> operation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Operation(Supplier<CompletableFuture<T>> operation) {
+            this.operation = operation;
+        }
+
+        /**
+         * @return {@code true} if the operation is in flight and will free the slot on completion
+         */
+        private boolean start() {
+            if (result.isDone()) {
+                return false;
+            }
+            final CompletableFuture<T> future;
+            try {
+                future = operation.get();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return false;
+            }
+            if (future.isDone()) {
+                future.whenComplete(this::complete);
+                return false;
+            }
+            future.whenComplete((value, throwable) -> {
+                complete(value, throwable);
+                startNext();
+            });
+            return true;
+        }
+
+        private void complete(T value, Throwable throwable) {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
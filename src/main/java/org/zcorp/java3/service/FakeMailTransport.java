@@ -0,0 +1,60 @@
+package org.zcorp.java3.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in of a mail server: every mail takes {@code delayMillis} and succeeds with probability {@code successRate}.
+ * Asynchronous sending completes the future from one timer thread, so mails in flight hold no threads
+ */
+public class FakeMailTransport implements MailTransport {
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "fake-mail-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long delayMillis;
+    private final double successRate;
+    private final AtomicLong sent = new AtomicLong();
+
+    /**
+     * @param delayMillis is latency of one mail
+     * @param successRate is probability of successful delivery from 0 to 1
+     */
+    public FakeMailTransport(long delayMillis, double successRate) {
+        this.delayMillis = delayMillis;
+        this.successRate = successRate;
+    }
+
+    @Override
+    public MailService.MailResult send(String template, String email) throws InterruptedException {
+        Thread.sleep(delayMillis);
+        return result(email);
+    }
+
+    @Override
+    public CompletableFuture<MailService.MailResult> sendAsync(String template, String email) {
+        final CompletableFuture<MailService.MailResult> future = new CompletableFuture<>();
+        TIMER.schedule(() -> future.complete(result(email)), delayMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * @return number of mails delivered (successfully or not) so far
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    private MailService.MailResult result(String email) {
+        sent.incrementAndGet();
+        return ThreadLocalRandom.current().nextDouble() < successRate
+                ? MailService.MailResult.ok(email)
+                : MailService.MailResult.error(email);
+    }
+}
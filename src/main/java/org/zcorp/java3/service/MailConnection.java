@@ -0,0 +1,21 @@
+package org.zcorp.java3.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Open session with the mail server of one domain. A connection is used by one thread at a time
+ */
+public interface MailConnection extends Closeable {
+
+    /**
+     * Sending one mail to several recipients of the domain in one exchange
+     *
+     * @param template is mail template
+     * @param emails   is recipients
+     * @return {@code results} in order of {@code emails}
+     * @throws IOException if the connection is broken, it is not reused then
+     */
+    List<MailService.MailResult> send(String template, List<String> emails) throws IOException;
+}
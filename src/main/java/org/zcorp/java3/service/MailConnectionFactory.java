@@ -0,0 +1,16 @@
+package org.zcorp.java3.service;
+
+import java.io.IOException;
+
+/**
+ * Opening of connections: resolving the server of the domain and the handshake
+ */
+@FunctionalInterface
+public interface MailConnectionFactory {
+
+    /**
+     * @param domain is mail domain in lower case, e.g. {@code example.com}
+     * @return {@code connection} to the mail server of {@code domain}
+     */
+    MailConnection connect(String domain) throws IOException;
+}
@@ -0,0 +1,191 @@
+package org.zcorp.java3.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Durable sending of a campaign by {@link MailService} with retries.
+ * <ul>
+ * <li>every recipient is journaled as queued, then as sent, failed (with the attempt number) or given up</li>
+ * <li>a failed mail is retried after {@code min(maxDelay, baseDelay * 2^(attempt - 1))}, a random half of which
+ * is jitter, so the retries of a failed domain are spread in time; after {@code maxAttempts} it is given up</li>
+ * <li>retries are fed by {@link MailRefeed} into the same {@code sendToList} as the campaign, ahead of
+ * the remaining recipients as soon as they are due, so a retry doesn't wait for the end of a long list</li>
+ * <li>running the same campaign with the same journal after a crash skips recipients already sent or given up
+ * and continues counting attempts of the failed ones</li>
+ * </ul>
+ * The service should be created with {@code maxFaults} 0: failures are retried here instead of cancelling the list.
+ * Delivery is at least once: a mail sent right before a crash may be sent again
+ */
+public class MailOutbox {
+    private static final String INTERRUPTED_BY_JOURNAL = "+++ Journal failure: ";
+    private static final int MAX_FAILED_KEPT = 100;
+
+    private final MailService mailService;
+    private final OutboxJournal journal;
+    private final ScheduledExecutorService scheduler;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param mailService     is service sending the mails
+     * @param journal         is journal of the campaign
+     * @param scheduler       is {@code ScheduledExecutorService} of retries, it is not shut down
+     * @param maxAttempts     is number of attempts before a recipient is given up
+     * @param baseDelayMillis is delay before the first retry
+     * @param maxDelayMillis  is maximal delay before a retry
+     */
+    public MailOutbox(MailService mailService, OutboxJournal journal, ScheduledExecutorService scheduler,
+                      int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts <= 0 || baseDelayMillis <= 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retries: attempts " + maxAttempts
+                    + ", delay " + baseDelayMillis + ".." + maxDelayMillis + " ms");
+        }
+        this.mailService = mailService;
+        this.journal = journal;
+        this.scheduler = scheduler;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Sending the campaign until every recipient is sent or given up
+     *
+     * @param template is mail template
+     * @param emails   is recipients, may be a lazy sequence
+     * @return {@code result} of this run: mails sent and given up, recipients completed by previous runs are not counted
+     */
+    public MailService.GroupResult send(String template, Iterable<String> emails) throws InterruptedException {
+        final Campaign campaign = new Campaign();
+        try {
+            final MailService.GroupResult result = mailService.sendToList(
+                    template, () -> campaign.queue(emails.iterator()), campaign, campaign);
+            journal.sync();
+            return new MailService.GroupResult(campaign.sent, campaign.gaveUpCount, campaign.gaveUp, result.getFailedCause());
+        } catch (UncheckedIOException e) {
+            return new MailService.GroupResult(campaign.sent, campaign.gaveUpCount, campaign.gaveUp,
+                    INTERRUPTED_BY_JOURNAL + e.getCause());
+        }
+    }
+
+    /**
+     * @return {@code delay} before attempt {@code attempt + 1}: exponential with equal jitter
+     */
+    long retryDelayMillis(int attempt) {
+        final long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * State of one run, used by the thread of {@code sendToList} only, except the queue of due retries
+     */
+    private class Campaign implements Consumer<MailService.MailResult>, MailRefeed {
+        // attempts of recipients failed in this run, others are not kept
+        private final Map<String, Integer> attempts = new HashMap<>();
+        private final BlockingQueue<String> due = new LinkedBlockingQueue<>();
+        private final List<MailService.MailResult> gaveUp = new ArrayList<>();
+        private int gaveUpCount;
+        private int sent;
+        // retries scheduled and not yet taken from the queue of due ones
+        private int retries;
+
+        /**
+         * @return recipients of {@code emails} not completed by previous runs, journaled as queued
+         */
+        private Iterator<String> queue(Iterator<String> emails) {
+            return new Iterator<String>() {
+                private String next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && emails.hasNext()) {
+                        final String email = emails.next();
+                        if (!journal.isCompleted(email)) {
+                            append(OutboxJournal.State.QUEUED, email, journal.getAttempts(email));
+                            next = email;
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final String email = next;
+                    next = null;
+                    return email;
+                }
+            };
+        }
+
+        @Override
+        public String poll() {
+            final String email = due.poll();
+            if (email != null) {
+                retries--;
+            }
+            return email;
+        }
+
+        @Override
+        public boolean isPending() {
+            return retries > 0;
+        }
+
+        @Override
+        public String take() throws InterruptedException {
+            final String email = due.take();
+            retries--;
+            return email;
+        }
+
+        @Override
+        public void accept(MailService.MailResult mailResult) {
+            if (mailResult == null) {
+                return;
+            }
+            final String email = mailResult.getEmail();
+            final Integer failedAttempts = attempts.remove(email);
+            final int attempt = (failedAttempts == null ? journal.getAttempts(email) : failedAttempts) + 1;
+            if (mailResult.isOk()) {
+                append(OutboxJournal.State.SENT, email, attempt);
+                sent++;
+            } else if (attempt >= maxAttempts) {
+                append(OutboxJournal.State.GAVE_UP, email, attempt);
+                gaveUpCount++;
+                if (gaveUp.size() < MAX_FAILED_KEPT) {
+                    gaveUp.add(mailResult);
+                }
+            } else {
+                append(OutboxJournal.State.FAILED, email, attempt);
+                attempts.put(email, attempt);
+                retries++;
+                scheduler.schedule(() -> due.add(email), retryDelayMillis(attempt), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void append(OutboxJournal.State state, String email, int attempt) {
+            try {
+                journal.append(state, email, attempt);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
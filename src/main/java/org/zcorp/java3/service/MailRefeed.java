@@ -0,0 +1,27 @@
+package org.zcorp.java3.service;
+
+/**
+ * Recipients fed again into a running {@link MailService#sendToList}, e.g. retries due after a backoff.
+ * They are sent ahead of the remaining recipients of the list, and the list doesn't end while some are pending.
+ * Methods are called by the thread of {@code sendToList} only
+ */
+public interface MailRefeed {
+
+    /**
+     * @return {@code recipient} to send now, {@code null} if none is due
+     */
+    String poll();
+
+    /**
+     * @return {@code true} if recipients may still be fed, e.g. retries are scheduled
+     */
+    boolean isPending();
+
+    /**
+     * Waiting for the next recipient, called only while it {@link #isPending() is pending} and no mail is in flight
+     *
+     * @return {@code recipient} to send now
+     * @throws InterruptedException if the waiting is interrupted, the list is cancelled
+     */
+    String take() throws InterruptedException;
+}
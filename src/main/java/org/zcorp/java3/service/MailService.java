@@ -1,11 +1,12 @@
 package org.zcorp.java3.service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
-
-import static java.util.stream.Collectors.toList;
+import java.util.function.Consumer;
 
 public class MailService {
     private static final String OK = "OK";
@@ -15,35 +16,201 @@ public class MailService {
     private static final String INTERRUPTED_BY_TIMEOUT = "+++ Interrupted by timeout";
     private static final String INTERRUPTED_EXCEPTION = "+++ InterruptedException";
 
-    private final ExecutorService mailExecutor = Executors.newFixedThreadPool(8);
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_MAX_FAULTS = 5;
+    private static final int WINDOW_FACTOR = 2;
+    private static final int MAX_FAILED_KEPT = 100;
+
+    /**
+     * How mails in flight are executed
+     */
+    public enum SendMode {
+        /**
+         * Blocking sending on a fixed pool of {@code maxConcurrency} platform threads
+         */
+        THREAD_POOL,
+        /**
+         * Blocking sending on a virtual thread per mail (JDK 21+), at most {@code maxConcurrency} mails in flight.
+         * Falls back to {@link #ASYNC} on older JDKs
+         */
+        VIRTUAL_THREADS,
+        /**
+         * Non-blocking sending by {@link MailTransport#sendAsync}, at most {@code maxConcurrency} mails in flight
+         */
+        ASYNC
+    }
+
+    private final MailTransport transport;
+    private final SendMode mode;
+    private final int maxConcurrency;
+    private final int maxFaults;
+    private final ExecutorService mailExecutor;
+    private final Semaphore permits;
+    private final ConcurrencyLimiter limiter;
+
+    public MailService() {
+        this(new FakeMailTransport(500, 0.7), SendMode.THREAD_POOL, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param transport      is delivery of mails
+     * @param mode           is execution of mails in flight
+     * @param maxConcurrency is maximal number of mails in flight
+     */
+    public MailService(MailTransport transport, SendMode mode, int maxConcurrency) {
+        this(transport, mode, maxConcurrency, DEFAULT_MAX_FAULTS);
+    }
+
+    /**
+     * @param transport      is delivery of mails
+     * @param mode           is execution of mails in flight
+     * @param maxConcurrency is maximal number of mails in flight
+     * @param maxFaults      is number of failed mails cancelling the whole list, 0 to never cancel it, e.g. when
+     *                       failing domains are isolated by {@link ThrottlingMailTransport}
+     */
+    public MailService(MailTransport transport, SendMode mode, int maxConcurrency, int maxFaults) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive: " + maxConcurrency);
+        }
+        if (maxFaults < 0) {
+            throw new IllegalArgumentException("Faults number must not be negative: " + maxFaults);
+        }
+        final ExecutorService virtualExecutor = mode == SendMode.VIRTUAL_THREADS ? newVirtualThreadExecutor() : null;
+        if (mode == SendMode.VIRTUAL_THREADS && virtualExecutor == null) {
+            mode = SendMode.ASYNC;
+        }
+        this.transport = transport;
+        this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+        this.maxFaults = maxFaults;
+        this.mailExecutor = mode == SendMode.THREAD_POOL ? Executors.newFixedThreadPool(maxConcurrency) : virtualExecutor;
+        this.permits = mode == SendMode.VIRTUAL_THREADS ? new Semaphore(maxConcurrency) : null;
+        this.limiter = mode == SendMode.ASYNC ? new ConcurrencyLimiter(maxConcurrency) : null;
+    }
+
+    /**
+     * @return {@code true} if the JVM has virtual threads ({@code Executors.newVirtualThreadPerTaskExecutor()})
+     */
+    public static boolean isVirtualThreadsSupported() {
+        final ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    // by reflection: the project is compiled for Java 8
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return mode actually used, {@link SendMode#ASYNC} if virtual threads were requested but are not supported
+     */
+    public SendMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Shutting down threads of the service, mails in flight are completed
+     */
+    public void shutdown() {
+        if (mailExecutor != null) {
+            mailExecutor.shutdown();
+        }
+    }
 
     public GroupResult sendToList(final String template, final Set<String> emails) {
-        final CompletionService<MailResult> completionService = new ExecutorCompletionService<>(mailExecutor);
+        return sendToList(template, emails, mailResult -> {
+        });
+    }
+
+    /**
+     * Sending a mail to every recipient of {@code emails} with constant memory per list:
+     * recipients are read from the iterator only when there is room for them
+     * (at most {@value #WINDOW_FACTOR} * {@code maxConcurrency} mails are submitted and not yet aggregated),
+     * results are passed to {@code sink} and are not kept, except first {@value #MAX_FAILED_KEPT} failures
+     *
+     * @param template is mail template
+     * @param emails   is recipients, may be a lazy sequence of any length
+     * @param sink     is called with every result in the calling thread, in order of completion
+     * @return {@code result} with counters of sent and failed mails
+     */
+    public GroupResult sendToList(final String template, final Iterable<String> emails, final Consumer<MailResult> sink) {
+        return sendToList(template, emails, sink, null);
+    }
 
-        List<Future<MailResult>> futures = emails.stream()
-                .map(email -> completionService.submit(
-                        () -> sendToUser(template, email)))
-                .collect(toList());
+    /**
+     * Sending a mail to every recipient of {@code emails} and to every recipient fed by {@code refeed}
+     * while the list is sent, e.g. retries of failed mails, with constant memory per list as above
+     *
+     * @param template is mail template
+     * @param emails   is recipients, may be a lazy sequence of any length
+     * @param sink     is called with every result in the calling thread, in order of completion
+     * @param refeed   is recipients sent ahead of the remaining {@code emails}, {@code null} if none
+     * @return {@code result} with counters of sent and failed mails
+     */
+    public GroupResult sendToList(final String template, final Iterable<String> emails, final Consumer<MailResult> sink,
+                                  final MailRefeed refeed) {
+        final BlockingQueue<Future<MailResult>> completed = new LinkedBlockingQueue<>();
+        final CompletionService<MailResult> completionService = mailExecutor == null ? null
+                : new ExecutorCompletionService<>(mailExecutor, completed);
+        final Iterator<String> recipients = emails.iterator();
+        final int window = WINDOW_FACTOR * maxConcurrency;
+
+        // futures are only needed to cancel them, so a set bounded by the window instead of a list of all mails
+        final Set<Future<MailResult>> inFlight = new HashSet<>();
 
         return new Callable<GroupResult>() {
             private int success = 0;
+            private int failedCount = 0;
             private List<MailResult> failed = new ArrayList<>();
 
             @Override
             public GroupResult call() {
-                while (!futures.isEmpty()) {
+                while (true) {
+                    while (inFlight.size() < window) {
+                        String email = refeed == null ? null : refeed.poll();
+                        if (email == null) {
+                            if (!recipients.hasNext()) {
+                                break;
+                            }
+                            email = recipients.next();
+                        }
+                        inFlight.add(submit(template, email, completionService, completed));
+                    }
+                    if (inFlight.isEmpty()) {
+                        if (refeed == null || !refeed.isPending()) {
+                            break;
+                        }
+                        try {
+                            inFlight.add(submit(template, refeed.take(), completionService, completed));
+                        } catch (InterruptedException e) {
+                            return cancelWithFail(INTERRUPTED_EXCEPTION);
+                        }
+                        continue;
+                    }
                     try {
-                        Future<MailResult> future = completionService.poll(10, TimeUnit.SECONDS);
+                        Future<MailResult> future = completed.poll(10, TimeUnit.SECONDS);
                         if (future == null) {
                             return cancelWithFail(INTERRUPTED_BY_TIMEOUT);
                         }
-                        futures.remove(future);
+                        inFlight.remove(future);
                         MailResult mailResult = future.get();
+                        sink.accept(mailResult);
                         if (mailResult.isOk()) {
                             success++;
                         } else {
-                            failed.add(mailResult);
-                            if (failed.size() >= 5) {
+                            failedCount++;
+                            if (failed.size() < MAX_FAILED_KEPT) {
+                                failed.add(mailResult);
+                            }
+                            if (maxFaults > 0 && failedCount >= maxFaults) {
                                 return cancelWithFail(INTERRUPTED_BY_FAULTS_NUMBER);
                             }
                         }
@@ -75,28 +242,51 @@ public class MailService {
                     }
                 }
 */
-                return new GroupResult(success, failed, null);
+                return new GroupResult(success, failedCount, failed, null);
             }
 
             private GroupResult cancelWithFail(String failedCause) {
-                futures.forEach(f -> f.cancel(true));
-                return new GroupResult(success, failed, failedCause);
+                inFlight.forEach(f -> f.cancel(true));
+                return new GroupResult(success, failedCount, failed, failedCause);
             }
         }.call();
     }
 
-    // dummy realization
+    private Future<MailResult> submit(String template, String email, CompletionService<MailResult> completionService,
+                                      BlockingQueue<Future<MailResult>> completed) {
+        if (mode == SendMode.ASYNC) {
+            final CompletableFuture<MailResult> future = limiter.submit(() -> transport.sendAsync(template, email));
+            future.whenComplete((mailResult, throwable) -> completed.add(future));
+            return future;
+        }
+        if (mode == SendMode.VIRTUAL_THREADS) {
+            return completionService.submit(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // log cancel
+                    return null;
+                }
+                try {
+                    return sendToUser(template, email);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        return completionService.submit(() -> sendToUser(template, email));
+    }
+
     public MailResult sendToUser(String template, String email) {
         try {
-            Thread.sleep(500); // delay
+            return transport.send(template, email);
         } catch (InterruptedException e) {
             // log cancel
             return null;
         }
-        return Math.random() < 0.7 ? MailResult.ok(email) : MailResult.error(email);
     }
 
-    private static class MailResult {
+    public static class MailResult {
         private final String email;
         private final String result;
 
@@ -108,10 +298,18 @@ public class MailService {
             return new MailResult(email, ERROR);
         }
 
+        public static MailResult error(String email, String cause) {
+            return new MailResult(email, ERROR + ": " + cause);
+        }
+
         public boolean isOk() {
             return OK.equals(result);
         }
 
+        public String getEmail() {
+            return email;
+        }
+
         private MailResult(String email, String result) {
             this.email = email;
             this.result = result;
@@ -123,21 +321,43 @@ public class MailService {
         }
     }
 
-    private static class GroupResult {
+    public static class GroupResult {
         private final int success; // number of successfully sent email
-        private final List<MailResult> failed; // failed emails with causes
+        private final int failedCount; // number of failed emails
+        private final List<MailResult> failed; // first failed emails with causes
         private final String failedCause; // global fail cause
 
         public GroupResult(int success, List<MailResult> failed, String failedCause) {
+            this(success, failed.size(), failed, failedCause);
+        }
+
+        public GroupResult(int success, int failedCount, List<MailResult> failed, String failedCause) {
             this.success = success;
+            this.failedCount = failedCount;
             this.failed = failed;
             this.failedCause = failedCause;
         }
 
+        public int getSuccess() {
+            return success;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public List<MailResult> getFailed() {
+            return failed;
+        }
+
+        public String getFailedCause() {
+            return failedCause;
+        }
+
         @Override
         public String toString() {
             return "Success: " + success + '\n' +
-                    "Failed: " + failed.toString() + '\n' +
+                    "Failed: " + failedCount + ' ' + failed.toString() + '\n' +
                     (failedCause == null ? "" : "Failed cause: " + failedCause);
         }
     }
@@ -0,0 +1,30 @@
+package org.zcorp.java3.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivery of one mail. {@link MailService} uses the blocking method in thread modes and the asynchronous one
+ * in {@link MailService.SendMode#ASYNC}
+ */
+public interface MailTransport {
+
+    /**
+     * Sending a mail in the calling thread
+     *
+     * @param template is mail template
+     * @param email    is recipient
+     * @return {@code result} of delivery
+     * @throws InterruptedException if the sending is cancelled
+     */
+    MailService.MailResult send(String template, String email) throws InterruptedException;
+
+    /**
+     * Sending a mail without blocking the calling thread: no thread is expected to wait for the server
+     * while the mail is in flight
+     *
+     * @param template is mail template
+     * @param email    is recipient
+     * @return {@code future} completed with the result of delivery
+     */
+    CompletableFuture<MailService.MailResult> sendAsync(String template, String email);
+}
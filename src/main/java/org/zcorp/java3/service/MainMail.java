@@ -0,0 +1,169 @@
+package org.zcorp.java3.service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of {@link MailService} modes on {@link FakeMailTransport} with 500 ms per mail.
+ * The thread pool is measured on a small list, it would take hours on a large one.
+ * Then per-domain batching of {@link BatchingMailTransport} against {@link StubMailServer}
+ * with 100 ms handshake and 50 ms round trip.
+ * Then a campaign with one of the domains down, without and with {@link ThrottlingMailTransport}.
+ * Then {@link MailOutbox} retrying 30% of failures and a second run of the same campaign resumed from the journal.
+ * Arguments: {@code [recipients [maxConcurrency]]}
+ */
+public class MainMail {
+    private static final int RECIPIENTS = 100_000;
+    private static final int MAX_CONCURRENCY = 10_000;
+    private static final int THREAD_POOL_RECIPIENTS = 80;
+    private static final long DELAY_MILLIS = 500;
+
+    private static final int BATCHING_RECIPIENTS = 20_000;
+    private static final int DOMAINS = 20;
+    private static final int CONNECTIONS_PER_DOMAIN = 4;
+    private static final long HANDSHAKE_MILLIS = 100;
+    private static final long ROUND_TRIP_MILLIS = 50;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int recipients = args.length > 0 ? Integer.parseInt(args[0]) : RECIPIENTS;
+        final int maxConcurrency = args.length > 1 ? Integer.parseInt(args[1]) : MAX_CONCURRENCY;
+
+        run(MailService.SendMode.THREAD_POOL, 8, Math.min(recipients, THREAD_POOL_RECIPIENTS));
+        if (MailService.isVirtualThreadsSupported()) {
+            run(MailService.SendMode.VIRTUAL_THREADS, maxConcurrency, recipients);
+        } else {
+            System.out.println("Virtual threads are not supported by this JVM");
+        }
+        run(MailService.SendMode.ASYNC, maxConcurrency, recipients);
+
+        runBatching(1);
+        runBatching(100);
+
+        runPartialOutage(false);
+        runPartialOutage(true);
+
+        runOutbox();
+    }
+
+    private static void runOutbox() throws IOException, InterruptedException {
+        final Iterable<String> emails = () -> IntStream.range(0, BATCHING_RECIPIENTS)
+                .mapToObj(i -> "user" + i + "@example.com")
+                .iterator();
+        final Path journalFile = Files.createTempFile("outbox", ".journal");
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int run = 1; run <= 2; run++) {
+                try (OutboxJournal journal = OutboxJournal.open(journalFile, 10)) {
+                    final MailService mailService = new MailService(
+                            new FakeMailTransport(20, 0.7), MailService.SendMode.ASYNC, MAX_CONCURRENCY, 0);
+                    final MailOutbox outbox = new MailOutbox(mailService, journal, scheduler, 5, 50, 1_000);
+                    final long start = System.nanoTime();
+                    final MailService.GroupResult result = outbox.send("template", emails);
+                    final double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.println(String.format("Outbox run %d: %d already sent, %6d sent, %3d given up in %7.3f s, journal %d KB%s",
+                            run, journal.getRecovered(OutboxJournal.State.SENT), result.getSuccess(), result.getFailedCount(),
+                            seconds, Files.size(journalFile) >> 10,
+                            result.getFailedCause() == null ? "" : ", " + result.getFailedCause()));
+                    mailService.shutdown();
+                }
+            }
+        } finally {
+            scheduler.shutdown();
+            Files.delete(journalFile);
+        }
+    }
+
+    private static void runPartialOutage(boolean throttling) {
+        final Iterable<String> emails = () -> IntStream.range(0, BATCHING_RECIPIENTS)
+                .mapToObj(i -> "user" + i + "@domain" + (i % DOMAINS) + ".com")
+                .iterator();
+        final MailTransport outage = new PartialOutageTransport("domain0.com", new FakeMailTransport(20, 1));
+        try (ThrottlingMailTransport throttled = new ThrottlingMailTransport(outage, 2_000, 100, 10, 200, 200, 5, 1_000)) {
+            final MailService mailService = throttling
+                    ? new MailService(throttled, MailService.SendMode.ASYNC, MAX_CONCURRENCY, 0)
+                    : new MailService(outage, MailService.SendMode.ASYNC, MAX_CONCURRENCY);
+            final long start = System.nanoTime();
+            final MailService.GroupResult result = mailService.sendToList("template", emails, mailResult -> {
+            });
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("Outage of 1/%d domains, %-10s: %6d sent, %6d failed in %7.3f s%s",
+                    DOMAINS, throttling ? "throttled" : "plain", result.getSuccess(), result.getFailedCount(), seconds,
+                    result.getFailedCause() == null ? "" : ", " + result.getFailedCause()));
+            mailService.shutdown();
+        }
+    }
+
+    private static class PartialOutageTransport implements MailTransport {
+        private final String failingDomain;
+        private final MailTransport transport;
+
+        private PartialOutageTransport(String failingDomain, MailTransport transport) {
+            this.failingDomain = failingDomain;
+            this.transport = transport;
+        }
+
+        @Override
+        public MailService.MailResult send(String template, String email) throws InterruptedException {
+            final MailService.MailResult result = transport.send(template, email);
+            return email.endsWith(failingDomain) ? MailService.MailResult.error(email) : result;
+        }
+
+        @Override
+        public CompletableFuture<MailService.MailResult> sendAsync(String template, String email) {
+            return transport.sendAsync(template, email)
+                    .thenApply(result -> email.endsWith(failingDomain) ? MailService.MailResult.error(email) : result);
+        }
+    }
+
+    private static void runBatching(int maxBatchSize) {
+        final Iterable<String> emails = () -> IntStream.range(0, BATCHING_RECIPIENTS)
+                .mapToObj(i -> "user" + i + "@domain" + (i % DOMAINS) + ".com")
+                .iterator();
+        final StubMailServer server = new StubMailServer(HANDSHAKE_MILLIS, ROUND_TRIP_MILLIS, 1);
+        try (BatchingMailTransport transport = new BatchingMailTransport(
+                server, CONNECTIONS_PER_DOMAIN, maxBatchSize, 10, DOMAINS * CONNECTIONS_PER_DOMAIN)) {
+            final MailService mailService = new MailService(transport, MailService.SendMode.ASYNC, MAX_CONCURRENCY);
+            final long start = System.nanoTime();
+            final MailService.GroupResult result = mailService.sendToList("template", emails, mailResult -> {
+            });
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("Batch size %4d: %6d mails in %7.3f s, %9.1f mails/s, %d connections, %d batches%s",
+                    maxBatchSize, result.getSuccess(), seconds, result.getSuccess() / seconds,
+                    server.getConnections(), server.getBatches(),
+                    result.getFailedCause() == null ? "" : ", " + result.getFailedCause()));
+            mailService.shutdown();
+        }
+    }
+
+    private static void run(MailService.SendMode mode, int maxConcurrency, int recipients) {
+        // generated lazily, a list of millions of recipients is never materialized
+        final Iterable<String> emails = () -> IntStream.range(0, recipients)
+                .mapToObj(i -> "user" + i + "@example.com")
+                .iterator();
+        final AtomicLong delivered = new AtomicLong();
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        final MailService mailService = new MailService(new FakeMailTransport(DELAY_MILLIS, 1), mode, maxConcurrency);
+        try {
+            final long start = System.nanoTime();
+            final MailService.GroupResult result = mailService.sendToList("template", emails, mailResult -> delivered.incrementAndGet());
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            final Runtime runtime = Runtime.getRuntime();
+            System.out.println(String.format("%-15s concurrency %6d: %7d mails in %7.3f s, %9.1f mails/s, peak threads %d, heap %d MB%s",
+                    mailService.getMode(), maxConcurrency, delivered.get(), seconds, result.getSuccess() / seconds,
+                    threads.getPeakThreadCount(), (runtime.totalMemory() - runtime.freeMemory()) >> 20,
+                    result.getFailedCause() == null ? "" : ", " + result.getFailedCause()));
+        } finally {
+            mailService.shutdown();
+        }
+    }
+}
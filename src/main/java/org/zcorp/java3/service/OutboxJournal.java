@@ -0,0 +1,247 @@
+package org.zcorp.java3.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of mail states of one campaign, in a memory-mapped file.
+ * <p>
+ * The file is mapped in regions of {@code regionSize} bytes, a record never crosses a region.
+ * Record: {@code int payloadLength, int crc32(payload), payload = byte state, int attempt, short emailLength, email UTF-8}.
+ * Length {@code -1} means the rest of the region is unused, length {@code 0} is the end of the journal.
+ * <p>
+ * Appends only copy bytes into the mapping. They are made durable by group commit: a background thread forces
+ * the mapping every {@code commitIntervalMillis}, so one disk flush covers all records appended meanwhile
+ * and durability does not limit the sending rate. A crash loses at most the last interval, its mails are sent again.
+ * <p>
+ * On opening, the journal is read up to the first invalid record (a torn write of a crash) and the last state
+ * of every recipient is kept in memory
+ */
+public class OutboxJournal implements Closeable {
+
+    public enum State {
+        QUEUED, SENT, FAILED, GAVE_UP
+    }
+
+    public static final int DEFAULT_REGION_SIZE = 64 << 20;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int PAYLOAD_HEADER_SIZE = 7;
+    private static final int SKIP_REGION = -1;
+    private static final int MAX_EMAIL_BYTES = Short.MAX_VALUE;
+    private static final int MAX_RECORD_SIZE = HEADER_SIZE + PAYLOAD_HEADER_SIZE + MAX_EMAIL_BYTES;
+    private static final State[] STATES = State.values();
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final ScheduledExecutorService committer;
+    private final Map<String, State> recoveredStates = new HashMap<>();
+    private final Map<String, Integer> recoveredAttempts = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+    private final Object commitLock = new Object();
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private boolean dirty;
+
+    private OutboxJournal(FileChannel channel, int regionSize, long commitIntervalMillis) throws IOException {
+        this.channel = channel;
+        this.regionSize = regionSize;
+        recover();
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "outbox-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commit, commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opening the journal, the file is created if it doesn't exist
+     *
+     * @param path                 is journal file of the campaign
+     * @param commitIntervalMillis is interval of group commit
+     * @return {@code journal} positioned after its last valid record
+     */
+    public static OutboxJournal open(Path path, long commitIntervalMillis) throws IOException {
+        return open(path, commitIntervalMillis, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * @param regionSize is size of one mapping, the same for every opening of the file
+     */
+    public static OutboxJournal open(Path path, long commitIntervalMillis, int regionSize) throws IOException {
+        if (commitIntervalMillis <= 0 || regionSize < MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Invalid journal: commit interval " + commitIntervalMillis
+                    + " ms, region " + regionSize + " bytes, at least " + MAX_RECORD_SIZE);
+        }
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new OutboxJournal(channel, regionSize, commitIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appending a state of a recipient. The record is durable after the next group commit or {@link #sync()}
+     *
+     * @param state   is new state
+     * @param email   is recipient
+     * @param attempt is number of attempts made so far
+     */
+    public synchronized void append(State state, String email, int attempt) throws IOException {
+        final byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        if (emailBytes.length > MAX_EMAIL_BYTES) {
+            throw new IllegalArgumentException("Email is too long: " + emailBytes.length + " bytes");
+        }
+        final int payloadLength = PAYLOAD_HEADER_SIZE + emailBytes.length;
+        if (region.remaining() < HEADER_SIZE + payloadLength) {
+            if (region.remaining() >= Integer.BYTES) {
+                region.putInt(SKIP_REGION);
+            }
+            region.force();
+            map(regionStart + regionSize);
+        }
+        final int start = region.position();
+        ((Buffer) region).position(start + HEADER_SIZE);
+        region.put((byte) state.ordinal())
+                .putInt(attempt)
+                .putShort((short) emailBytes.length)
+                .put(emailBytes);
+        region.putInt(start + Integer.BYTES, checksum(start + HEADER_SIZE, payloadLength));
+        // length last: a record without it is the end of the journal
+        region.putInt(start, payloadLength);
+        dirty = true;
+    }
+
+    /**
+     * Forcing all appended records to disk
+     */
+    public void sync() {
+        commit();
+    }
+
+    /**
+     * @return {@code true} if {@code email} was sent or given up in a previous run
+     */
+    public boolean isCompleted(String email) {
+        final State state = recoveredStates.get(email);
+        return state == State.SENT || state == State.GAVE_UP;
+    }
+
+    /**
+     * @return number of attempts made for {@code email} in previous runs
+     */
+    public int getAttempts(String email) {
+        return recoveredAttempts.getOrDefault(email, 0);
+    }
+
+    /**
+     * @return number of recipients in state {@code state} after the previous runs
+     */
+    public long getRecovered(State state) {
+        return recoveredStates.values().stream().filter(state::equals).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        committer.shutdown();
+        commit();
+        channel.close();
+    }
+
+    private void commit() {
+        // a commit in progress may have started before the last append, so the next one waits for it and checks again
+        synchronized (commitLock) {
+            final MappedByteBuffer toForce;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                toForce = region;
+            }
+            // outside of the journal lock: appends go on while the pages are written
+            toForce.force();
+        }
+    }
+
+    private void recover() throws IOException {
+        long start = 0;
+        while (true) {
+            map(start);
+            if (!readRegion()) {
+                break;
+            }
+            start += regionSize;
+        }
+        // a torn record may be followed by garbage of its own, it must not look like a record after new appends
+        final int position = region.position();
+        for (int i = position; i < Math.min(region.limit(), position + MAX_RECORD_SIZE); i++) {
+            region.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * @return {@code true} if the journal continues in the next region, otherwise the region is positioned at the end
+     */
+    private boolean readRegion() {
+        int position = 0;
+        while (region.limit() - position >= Integer.BYTES) {
+            final int payloadLength = region.getInt(position);
+            if (payloadLength == SKIP_REGION) {
+                return true;
+            }
+            if (payloadLength < PAYLOAD_HEADER_SIZE || position + HEADER_SIZE + payloadLength > region.limit()
+                    || region.getInt(position + Integer.BYTES) != checksum(position + HEADER_SIZE, payloadLength)) {
+                ((Buffer) region).position(position);
+                return false;
+            }
+            final int payload = position + HEADER_SIZE;
+            final int stateIndex = region.get(payload);
+            final int attempt = region.getInt(payload + 1);
+            final int emailLength = region.getShort(payload + 5);
+            if (stateIndex < 0 || stateIndex >= STATES.length || PAYLOAD_HEADER_SIZE + emailLength != payloadLength) {
+                ((Buffer) region).position(position);
+                return false;
+            }
+            final byte[] emailBytes = new byte[emailLength];
+            for (int i = 0; i < emailLength; i++) {
+                emailBytes[i] = region.get(payload + PAYLOAD_HEADER_SIZE + i);
+            }
+            final String email = new String(emailBytes, StandardCharsets.UTF_8);
+            recoveredStates.put(email, STATES[stateIndex]);
+            recoveredAttempts.put(email, attempt);
+            position = payload + payloadLength;
+        }
+        return true;
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        for (int i = offset; i < offset + length; i++) {
+            crc.update(region.get(i));
+        }
+        return (int) crc.getValue();
+    }
+
+    private void map(long start) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+        regionStart = start;
+    }
+}
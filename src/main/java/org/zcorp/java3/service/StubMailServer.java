@@ -0,0 +1,86 @@
+package org.zcorp.java3.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in of mail servers of all domains for tests and demos.
+ * Opening a connection takes {@code handshakeMillis}, one batch takes {@code roundTripMillis} whatever its size
+ * (recipients are pipelined), every mail succeeds with probability {@code successRate}
+ */
+public class StubMailServer implements MailConnectionFactory {
+    private final long handshakeMillis;
+    private final long roundTripMillis;
+    private final double successRate;
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+
+    /**
+     * @param handshakeMillis is latency of opening a connection
+     * @param roundTripMillis is latency of sending a batch
+     * @param successRate     is probability of successful delivery from 0 to 1
+     */
+    public StubMailServer(long handshakeMillis, long roundTripMillis, double successRate) {
+        this.handshakeMillis = handshakeMillis;
+        this.roundTripMillis = roundTripMillis;
+        this.successRate = successRate;
+    }
+
+    @Override
+    public MailConnection connect(String domain) throws IOException {
+        sleep(handshakeMillis);
+        connections.incrementAndGet();
+        return new MailConnection() {
+            private volatile boolean closed;
+
+            @Override
+            public List<MailService.MailResult> send(String template, List<String> emails) throws IOException {
+                if (closed) {
+                    throw new IOException("Connection to " + domain + " is closed");
+                }
+                sleep(roundTripMillis);
+                batches.incrementAndGet();
+                messages.addAndGet(emails.size());
+                final List<MailService.MailResult> results = new ArrayList<>(emails.size());
+                for (String email : emails) {
+                    results.add(ThreadLocalRandom.current().nextDouble() < successRate
+                            ? MailService.MailResult.ok(email)
+                            : MailService.MailResult.error(email));
+                }
+                return results;
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getMessages() {
+        return messages.get();
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+}
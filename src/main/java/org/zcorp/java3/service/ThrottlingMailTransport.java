@@ -0,0 +1,176 @@
+package org.zcorp.java3.service;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport protecting every recipient domain separately, on top of another transport:
+ * <ul>
+ * <li>token bucket: at most {@code ratePerSecond} mails per second to a domain, bursts up to {@code burst}</li>
+ * <li>AIMD concurrency: the number of mails in flight to a domain grows by one per round trip while
+ * mails succeed within {@code latencyThresholdMillis} and is halved on an error or a slower mail,
+ * between 1 and {@code maxConcurrency}</li>
+ * <li>circuit breaker: {@code failureThreshold} consecutive failures of a domain reject its mails
+ * for {@code openMillis}, then one trial mail decides whether to resume</li>
+ * </ul>
+ * A failing domain is isolated: its mails are rejected with an error result immediately,
+ * the mails of other domains are not delayed. Waiting mails hold no threads
+ */
+public class ThrottlingMailTransport implements MailTransport, Closeable {
+    static final String CIRCUIT_OPEN = "Circuit open";
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final MailTransport transport;
+    private final double ratePerSecond;
+    private final int burst;
+    private final int initialConcurrency;
+    private final int maxConcurrency;
+    private final long latencyThresholdNanos;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ScheduledExecutorService timer;
+    private final Map<String, Domain> domains = new ConcurrentHashMap<>();
+
+    /**
+     * @param transport              is transport sending the mails
+     * @param ratePerSecond          is maximal rate of mails to one domain
+     * @param burst                  is maximal number of mails to one domain without waiting after a pause
+     * @param initialConcurrency     is initial number of mails in flight to one domain
+     * @param maxConcurrency         is maximal number of mails in flight to one domain
+     * @param latencyThresholdMillis is latency of a mail considered as overload of the domain
+     * @param failureThreshold       is number of consecutive failures opening the circuit of a domain
+     * @param openMillis             is time the circuit of a domain stays open
+     */
+    public ThrottlingMailTransport(MailTransport transport, double ratePerSecond, int burst, int initialConcurrency,
+                                   int maxConcurrency, long latencyThresholdMillis, int failureThreshold, long openMillis) {
+        if (ratePerSecond <= 0 || burst <= 0 || initialConcurrency <= 0 || maxConcurrency < initialConcurrency
+                || latencyThresholdMillis <= 0 || failureThreshold <= 0 || openMillis < 0) {
+            throw new IllegalArgumentException("Invalid throttling: rate " + ratePerSecond + "/s, burst " + burst
+                    + ", concurrency " + initialConcurrency + ".." + maxConcurrency + ", latency threshold " + latencyThresholdMillis
+                    + " ms, failure threshold " + failureThreshold + ", open " + openMillis + " ms");
+        }
+        this.transport = transport;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.initialConcurrency = initialConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "mail-rate-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public MailService.MailResult send(String template, String email) throws InterruptedException {
+        try {
+            return sendAsync(template, email).get();
+        } catch (ExecutionException e) {
+            return MailService.MailResult.error(email, e.getCause().toString());
+        }
+    }
+
+    @Override
+    public CompletableFuture<MailService.MailResult> sendAsync(String template, String email) {
+        final Domain domain = domains.computeIfAbsent(BatchingMailTransport.domainOf(email), name -> new Domain());
+        return domain.limiter.submit(() -> domain.send(template, email));
+    }
+
+    /**
+     * @return current number of mails in flight allowed to {@code domain}, 0 if nothing was sent to it
+     */
+    public int getConcurrency(String domain) {
+        final Domain state = domains.get(domain);
+        return state == null ? 0 : state.limiter.getLimit();
+    }
+
+    /**
+     * @return {@code true} if mails to {@code domain} are rejected now
+     */
+    public boolean isCircuitOpen(String domain) {
+        final Domain state = domains.get(domain);
+        return state != null && state.breaker.getState() == CircuitBreaker.State.OPEN;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdown();
+    }
+
+    private class Domain {
+        private final TokenBucket bucket = new TokenBucket(ratePerSecond, burst);
+        private final CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openMillis);
+        private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(initialConcurrency);
+        private double concurrency = initialConcurrency;
+        // nanoTime has an arbitrary origin, so 0 may be in the future: the first decrease must not be suppressed
+        private long lastDecrease = System.nanoTime() - latencyThresholdNanos;
+
+        /**
+         * Called by the limiter when the mail may be in flight
+         */
+        private CompletableFuture<MailService.MailResult> send(String template, String email) {
+            if (!breaker.allowRequest()) {
+                return CompletableFuture.completedFuture(MailService.MailResult.error(email, CIRCUIT_OPEN));
+            }
+            final long delay = bucket.reserve();
+            final CompletableFuture<MailService.MailResult> result;
+            if (delay == 0) {
+                result = sendNow(template, email);
+            } else {
+                result = new CompletableFuture<>();
+                timer.schedule(() -> sendNow(template, email).whenComplete((mailResult, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(mailResult);
+                    }
+                }), delay, TimeUnit.NANOSECONDS);
+            }
+            final long start = System.nanoTime() + delay;
+            return result.whenComplete((mailResult, throwable) ->
+                    record(throwable == null && mailResult != null && mailResult.isOk(), System.nanoTime() - start));
+        }
+
+        private CompletableFuture<MailService.MailResult> sendNow(String template, String email) {
+            try {
+                return transport.sendAsync(template, email);
+            } catch (RuntimeException e) {
+                final CompletableFuture<MailService.MailResult> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+        }
+
+        private void record(boolean success, long latencyNanos) {
+            breaker.record(success);
+            final int limit;
+            synchronized (this) {
+                final long now = System.nanoTime();
+                if (!success || latencyNanos > latencyThresholdNanos) {
+                    // one decrease per round trip: mails of the same overload complete together
+                    if (now - lastDecrease < latencyNanos) {
+                        return;
+                    }
+                    lastDecrease = now;
+                    concurrency = Math.max(1, concurrency * DECREASE_FACTOR);
+                } else {
+                    concurrency = Math.min(maxConcurrency, concurrency + 1 / concurrency);
+                }
+                limit = (int) concurrency;
+            }
+            if (limit != limiter.getLimit()) {
+                limiter.setLimit(limit);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.zcorp.java3.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit of {@code ratePerSecond} operations with bursts up to {@code burst}.
+ * A caller reserves a token and waits the returned delay itself, so the bucket never blocks
+ * and a waiting asynchronous operation may be just scheduled on a timer
+ */
+class TokenBucket {
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long updated;
+
+    /**
+     * @param ratePerSecond is long-term rate of operations
+     * @param burst         is maximal number of operations without waiting after a pause
+     */
+    TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit: " + ratePerSecond + "/s, burst " + burst);
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.updated = System.nanoTime();
+    }
+
+    /**
+     * Taking a token, possibly one which will be added in future
+     *
+     * @return {@code delay} in nanoseconds the caller must wait before the operation, 0 if a token is available now
+     */
+    synchronized long reserve() {
+        final long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - updated) * ratePerNano);
+        updated = now;
+        tokens--;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / ratePerNano);
+    }
+}
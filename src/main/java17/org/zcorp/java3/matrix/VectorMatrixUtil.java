@@ -0,0 +1,185 @@
+package org.zcorp.java3.matrix;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Row-broadcast multiplication with explicit SIMD.
+ * <p>
+ * JDK 17+ version of the class from the multi-release jar. Kernels use {@code IntVector}/{@code FloatVector}
+ * of the preferred species when module {@code jdk.incubator.vector} is resolved
+ * (JVM option {@code --add-modules jdk.incubator.vector}), otherwise they fall back to the scalar loop
+ */
+public class VectorMatrixUtil {
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * @return {@code true} if kernels of this class use the Vector API
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Single threaded multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] singleThreadMultiply(int[][] matrixA, int[][] matrixB) {
+        final int[][] matrixC = new int[matrixA.length][columns(matrixA, matrixB)];
+        for (int row = 0; row < matrixA.length; row++) {
+            multiplyRow(matrixA[row], matrixB, matrixC[row]);
+        }
+        return matrixC;
+    }
+
+    /**
+     * Single threaded multiplication of two matrices
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static float[][] singleThreadMultiply(float[][] matrixA, float[][] matrixB) {
+        final float[][] matrixC = new float[matrixA.length][columns(matrixA, matrixB)];
+        for (int row = 0; row < matrixA.length; row++) {
+            multiplyRow(matrixA[row], matrixB, matrixC[row]);
+        }
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices: parallel stream over rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run the stream, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static int[][] concurrentMultiply(int[][] matrixA, int[][] matrixB, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        final int[][] matrixC = new int[matrixA.length][columns(matrixA, matrixB)];
+        pool.submit(
+                () -> IntStream.range(0, matrixA.length)
+                        .parallel()
+                        .forEach(row -> multiplyRow(matrixA[row], matrixB, matrixC[row])))
+                .get();
+        return matrixC;
+    }
+
+    /**
+     * Multithreading multiplication of two matrices: parallel stream over rows
+     * Assumption:
+     * number of columns of {@code matrixA} is equal to number of rows of {@code matrixB}
+     *
+     * @param matrixA is first matrix
+     * @param matrixB is second matrix
+     * @param pool    is {@code ForkJoinPool} to run the stream, it is not shut down
+     * @return {@code matrixC} is a multiplication {@code matrixA} and {@code matrixB}
+     */
+    public static float[][] concurrentMultiply(float[][] matrixA, float[][] matrixB, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        final float[][] matrixC = new float[matrixA.length][columns(matrixA, matrixB)];
+        pool.submit(
+                () -> IntStream.range(0, matrixA.length)
+                        .parallel()
+                        .forEach(row -> multiplyRow(matrixA[row], matrixB, matrixC[row])))
+                .get();
+        return matrixC;
+    }
+
+    private static void multiplyRow(int[] rowA, int[][] matrixB, int[] rowC) {
+        if (VECTORIZED) {
+            Kernels.multiplyRow(rowA, matrixB, rowC);
+            return;
+        }
+        for (int i = 0; i < rowA.length; i++) {
+            int elementA = rowA[i];
+            int rowB[] = matrixB[i];
+            for (int column = 0; column < rowC.length; column++) {
+                rowC[column] += elementA * rowB[column];
+            }
+        }
+    }
+
+    private static void multiplyRow(float[] rowA, float[][] matrixB, float[] rowC) {
+        if (VECTORIZED) {
+            Kernels.multiplyRow(rowA, matrixB, rowC);
+            return;
+        }
+        for (int i = 0; i < rowA.length; i++) {
+            float elementA = rowA[i];
+            float rowB[] = matrixB[i];
+            for (int column = 0; column < rowC.length; column++) {
+                rowC[column] += elementA * rowB[column];
+            }
+        }
+    }
+
+    private static int columns(Object[] matrixA, Object[] matrixB) {
+        if (matrixA.length > 0 && Array.getLength(matrixA[0]) != matrixB.length) {
+            throw new IllegalArgumentException("Matrices can't be multiplied: "
+                    + matrixA.length + 'x' + Array.getLength(matrixA[0]) + " and " + matrixB.length + "xN");
+        }
+        return matrixB.length == 0 ? 0 : Array.getLength(matrixB[0]);
+    }
+
+    /**
+     * Vector API kernels, the class is loaded only if {@code jdk.incubator.vector} is present
+     */
+    private static class Kernels {
+        private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+        private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+        private static void multiplyRow(int[] rowA, int[][] matrixB, int[] rowC) {
+            final int columns = rowC.length;
+            final int bound = INT_SPECIES.loopBound(columns);
+            for (int i = 0; i < rowA.length; i++) {
+                final int elementA = rowA[i];
+                final int[] rowB = matrixB[i];
+                final IntVector vectorA = IntVector.broadcast(INT_SPECIES, elementA);
+                int column = 0;
+                for (; column < bound; column += INT_SPECIES.length()) {
+                    IntVector.fromArray(INT_SPECIES, rowC, column)
+                            .add(vectorA.mul(IntVector.fromArray(INT_SPECIES, rowB, column)))
+                            .intoArray(rowC, column);
+                }
+                for (; column < columns; column++) {
+                    rowC[column] += elementA * rowB[column];
+                }
+            }
+        }
+
+        private static void multiplyRow(float[] rowA, float[][] matrixB, float[] rowC) {
+            final int columns = rowC.length;
+            final int bound = FLOAT_SPECIES.loopBound(columns);
+            for (int i = 0; i < rowA.length; i++) {
+                final float elementA = rowA[i];
+                final float[] rowB = matrixB[i];
+                final FloatVector vectorA = FloatVector.broadcast(FLOAT_SPECIES, elementA);
+                int column = 0;
+                for (; column < bound; column += FLOAT_SPECIES.length()) {
+                    // mul and add rounded separately, as in the scalar tail and kernel: fma would change the last bits
+                    FloatVector.fromArray(FLOAT_SPECIES, rowC, column)
+                            .add(vectorA.mul(FloatVector.fromArray(FLOAT_SPECIES, rowB, column)))
+                            .intoArray(rowC, column);
+                }
+                for (; column < columns; column++) {
+                    rowC[column] += elementA * rowB[column];
+                }
+            }
+        }
+    }
+}